@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import android.test.InstrumentationTestCase;
+import java.util.Arrays;
+import java.util.HashMap;
+import org.junit.Test;
+
+// Tests of NumberFormat which need its package private constructors.
+public class NumberFormatTest extends InstrumentationTestCase {
+  // From API 30, NumberFormat formats with android.icu.number where the options allow it. Its
+  // output must match the older formatter, which is still used for everything else.
+  @Test
+  public void testLocalizedNumberFormatterMatchesLegacyFormatter() throws JSRangeErrorException {
+    String[][] optionSets = {
+      {},
+      {"style", "percent"},
+      {"style", "percent", "signDisplay", "always"},
+      {"signDisplay", "always"},
+      {"signDisplay", "never"},
+      {"signDisplay", "exceptZero"},
+      {"style", "currency", "currency", "USD", "signDisplay", "always"},
+      {"style", "currency", "currency", "EUR", "signDisplay", "exceptZero"},
+      {"style", "currency", "currency", "USD", "currencyDisplay", "code"},
+      {"style", "currency", "currency", "EUR", "currencyDisplay", "name"},
+      {"style", "currency", "currency", "JPY", "currencyDisplay", "symbol"},
+      {"style", "currency", "currency", "CAD", "currencyDisplay", "narrowSymbol"},
+      {"style", "unit", "unit", "kilometer-per-hour", "unitDisplay", "long"},
+      {"style", "unit", "unit", "liter", "unitDisplay", "short"},
+      {"style", "unit", "unit", "celsius", "unitDisplay", "narrow"},
+      {"notation", "compact", "compactDisplay", "short"},
+      {"notation", "compact", "compactDisplay", "long"},
+    };
+    String[] locales = {"en-US", "de-DE", "fr-FR", "ja-JP"};
+    double[] values = {0, -0.0, 0.005, 1, -1, 0.256, 1234.5, -1234.5, 987654321};
+
+    for (String locale : locales) {
+      for (String[] optionSet : optionSets) {
+        HashMap<String, Object> options = new HashMap<>();
+        for (int i = 0; i < optionSet.length; i += 2) options.put(optionSet[i], optionSet[i + 1]);
+        NumberFormat numberFormat = new NumberFormat(Arrays.asList(locale), options);
+        NumberFormat legacy = new NumberFormat(Arrays.asList(locale), options, false);
+
+        for (double value : values) {
+          String description = locale + " " + Arrays.toString(optionSet) + " " + value;
+          assertThat(numberFormat.format(value))
+              .describedAs(description)
+              .isEqualTo(legacy.format(value));
+
+          FormattedParts parts = numberFormat.formatToParts(value);
+          FormattedParts legacyParts = legacy.formatToParts(value);
+          assertThat(parts.getValue()).describedAs(description).isEqualTo(legacyParts.getValue());
+          assertThat(parts.getEnds()).describedAs(description).isEqualTo(legacyParts.getEnds());
+          assertThat(parts.getTypes()).describedAs(description).isEqualTo(legacyParts.getTypes());
+        }
+      }
+    }
+  }
+}
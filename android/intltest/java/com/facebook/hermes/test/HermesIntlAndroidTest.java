@@ -10,11 +10,19 @@ package com.facebook.hermes.test;
 import static org.assertj.core.api.Java6Assertions.assertThat;
 
 import android.content.res.AssetManager;
+import android.os.Debug;
 import android.test.InstrumentationTestCase;
+import com.facebook.hermes.intl.Collator;
+import com.facebook.hermes.intl.DateTimeFormat;
+import com.facebook.hermes.intl.JSRangeErrorException;
+import com.facebook.hermes.intl.NumberFormat;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.stream.Collectors;
 import org.junit.Test;
 
@@ -69,4 +77,239 @@ public class HermesIntlAndroidTest extends InstrumentationTestCase {
       assertThat(result).isEqualTo("9/24, 6:00 PM");
     }
   }
+
+  // Formatting into a reused buffer is what native code does for every DateTimeFormat.format call,
+  // and it should allocate much less than formatting to a new String.
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testDateTimeFormatIntoSteadyStateAllocations() throws JSRangeErrorException {
+    HashMap<String, Object> options = new HashMap<>();
+    options.put("timeZone", "America/New_York");
+    options.put("day", "numeric");
+    options.put("month", "numeric");
+    options.put("hour", "numeric");
+    options.put("minute", "numeric");
+    DateTimeFormat dateTimeFormat = new DateTimeFormat(Arrays.asList("en-US"), options);
+
+    char[] buffer = new char[64];
+    double date = 1628863200000.0; // 2021-08-13T14:00:00Z
+    final int iterations = 1000;
+    for (int i = 0; i < iterations; i++) {
+      dateTimeFormat.formatInto(date + i * 60000, buffer);
+    }
+
+    Debug.startAllocCounting();
+    Debug.resetThreadAllocCount();
+    int length = 0;
+    for (int i = 0; i < iterations; i++) {
+      length = dateTimeFormat.formatInto(date + i * 60000, buffer);
+    }
+    int allocations = Debug.getThreadAllocCount();
+    Debug.stopAllocCounting();
+
+    assertThat(new String(buffer, 0, length)).isEqualTo("8/14, 2:39 AM");
+    // The String path allocated several objects per call: the formatted String, its StringBuffer
+    // and their backing arrays. Formatting into the buffer may still allocate now and then, e.g.
+    // when ICU recomputes calendar fields or the memoized date part changes, but should stay below
+    // one allocation per call.
+    assertThat(allocations).isLessThan(iterations);
+  }
+
+  @Test
+  public void testNumberFormatBatchMatchesFormat() throws JSRangeErrorException {
+    HashMap<String, Object> options = new HashMap<>();
+    options.put("style", "currency");
+    options.put("currency", "EUR");
+    NumberFormat numberFormat = new NumberFormat(Arrays.asList("de-DE"), options);
+
+    double[] values = {0, -1234.5, 0.005, 987654321};
+    int[] ends = new int[values.length];
+    String batch = numberFormat.formatBatch(values, ends);
+
+    int start = 0;
+    for (int i = 0; i < values.length; i++) {
+      assertThat(batch.substring(start, ends[i])).isEqualTo(numberFormat.format(values[i]));
+      start = ends[i];
+    }
+    assertThat(start).isEqualTo(batch.length());
+  }
+
+  @Test
+  public void testCollatorCacheReusesEqualConstructions() {
+    try (JSRuntime rt = JSRuntime.makeHermesRuntime()) {
+      rt.evaluateJavaScript("new Intl.Collator('de', {sensitivity: 'base', numeric: true});");
+      int instanceCount = Collator.getInstanceCount();
+
+      rt.evaluateJavaScript(
+          new StringBuilder()
+              .append("var collator =\n")
+              .append("    new Intl.Collator('de', {numeric: true, sensitivity: 'base'});\n")
+              .append("var result = String(collator.compare('a', 'A'));\n")
+              .toString());
+
+      assertThat(rt.getGlobalStringProperty("result")).isEqualTo("0");
+      assertThat(Collator.getInstanceCount()).isEqualTo(instanceCount);
+    }
+  }
+
+  @Test
+  public void testCollatorCacheFollowsDefaultLocale() {
+    Locale defaultLocale = Locale.getDefault();
+    try (JSRuntime rt = JSRuntime.makeHermesRuntime()) {
+      Locale.setDefault(Locale.GERMANY);
+      rt.evaluateJavaScript("var before = new Intl.Collator().resolvedOptions().locale;");
+      Locale.setDefault(Locale.FRANCE);
+      rt.evaluateJavaScript("var after = new Intl.Collator().resolvedOptions().locale;");
+
+      assertThat(rt.getGlobalStringProperty("before")).startsWith("de");
+      assertThat(rt.getGlobalStringProperty("after")).startsWith("fr");
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
+
+  @Test
+  public void testNumberFormatCacheFollowsDefaultLocale() {
+    Locale defaultLocale = Locale.getDefault();
+    try (JSRuntime rt = JSRuntime.makeHermesRuntime()) {
+      Locale.setDefault(Locale.GERMANY);
+      rt.evaluateJavaScript("var before = new Intl.NumberFormat().format(1234.5);");
+      Locale.setDefault(Locale.US);
+      rt.evaluateJavaScript("var after = new Intl.NumberFormat().format(1234.5);");
+
+      assertThat(rt.getGlobalStringProperty("before")).isEqualTo("1.234,5");
+      assertThat(rt.getGlobalStringProperty("after")).isEqualTo("1,234.5");
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
+
+  // A reused formatter memoizes the date part of its output while the local day doesn't change, so
+  // check it against a fresh formatter around midnight and around DST transitions, in time zones
+  // with whole hour, half hour and no DST offsets.
+  @Test
+  public void testReusedDateTimeFormatMatchesFreshFormatter() throws JSRangeErrorException {
+    String[] timeZones = {
+      "America/New_York", "Europe/Berlin", "Australia/Lord_Howe", "Asia/Kolkata",
+    };
+    double[] transitions = {
+      1615705200000.0, // 2021-03-14T07:00:00Z, New York springs forward
+      1635642000000.0, // 2021-10-31T01:00:00Z, Berlin falls back
+      1633188600000.0, // 2021-10-02T15:30:00Z, Lord Howe springs forward by half an hour
+    };
+    final double step = 17 * 60000;
+    final double window = 26 * 60 * 60000;
+
+    char[] buffer = new char[128];
+    for (String timeZone : timeZones) {
+      HashMap<String, Object> options = new HashMap<>();
+      options.put("timeZone", timeZone);
+      options.put("weekday", "short");
+      options.put("year", "numeric");
+      options.put("month", "short");
+      options.put("day", "numeric");
+      options.put("hour", "numeric");
+      options.put("minute", "numeric");
+      options.put("timeZoneName", "short");
+      DateTimeFormat reused = new DateTimeFormat(Arrays.asList("en-US"), options);
+
+      for (double transition : transitions) {
+        for (double date = transition - window; date <= transition + window; date += step) {
+          String expected = new DateTimeFormat(Arrays.asList("en-US"), options).format(date);
+          assertThat(reused.format(date)).isEqualTo(expected);
+          int length = reused.formatInto(date, buffer);
+          assertThat(new String(buffer, 0, length)).isEqualTo(expected);
+        }
+      }
+    }
+  }
+
+  // arr.sort(collator.compare) over an array of strings sorts by collation keys fetched in bulk,
+  // while any other comparator calls compare for every comparison. Both must give the same result,
+  // including the order of elements which compare equal.
+  @Test
+  public void testSortWithCollatorCompareMatchesComparatorSort() {
+    try (JSRuntime rt = JSRuntime.makeHermesRuntime()) {
+      rt.evaluateJavaScript(
+          new StringBuilder()
+              .append("var cases = [\n")
+              .append("  ['en', {}, ['b', 'A', 'a', 'B', 'c', 'C', 'ab', 'Ab', 'aB']],\n")
+              .append("  ['fr', {}, ['\u00e9', 'e', '\u00eb', 'E', 'f', '\u00ea', 'cote',\n")
+              .append("      'c\u00f4te', 'cot\u00e9', 'c\u00f4t\u00e9']],\n")
+              .append("  ['de', {sensitivity: 'base'}, ['a', 'B', 'A', '\u00e1', 'b', 'a',\n")
+              .append("      '\u00c4', 'c', '\u00e4']],\n")
+              .append("  ['en', {numeric: true}, ['10', '9', '1', '010', '01', '2']],\n")
+              .append("  ['en', {}, ['b', 3, 'a', undefined, null, 1, 'c', true]],\n")
+              .append("  ['en', {}, ['b', , 'a', 'c']],\n")
+              .append("];\n")
+              .append("var big = [];\n")
+              .append("for (var i = 0; i < 2000; i++) {\n")
+              .append("  big.push(['x', 'X', '\u00e9', 'e', 'E'][i % 5] + ((i * 7919) % 97));\n")
+              .append("}\n")
+              .append("cases.push(['en', {sensitivity: 'base'}, big]);\n")
+              .append("var result = 'ok';\n")
+              .append("cases.forEach(function(c, n) {\n")
+              .append("  var collator = new Intl.Collator(c[0], c[1]);\n")
+              .append("  var fast = c[2].slice().sort(collator.compare);\n")
+              .append("  var slow = c[2].slice().sort(function(x, y) {\n")
+              .append("    return collator.compare(x, y);\n")
+              .append("  });\n")
+              .append("  var same = fast.length === slow.length;\n")
+              .append("  for (var i = 0; same && i < fast.length; i++) {\n")
+              .append("    same = (i in fast) === (i in slow) && fast[i] === slow[i];\n")
+              .append("  }\n")
+              .append("  if (!same && result === 'ok') {\n")
+              .append("    result = 'case ' + n + ': ' + fast.join() + ' != ' + slow.join();\n")
+              .append("  }\n")
+              .append("});\n")
+              .append("var stable = ['a', 'B', 'A', '\u00e1', 'b', 'a']\n")
+              .append("    .sort(new Intl.Collator('en', {sensitivity: 'base'}).compare)\n")
+              .append("    .join();\n")
+              .toString());
+
+      assertThat(rt.getGlobalStringProperty("result")).isEqualTo("ok");
+      assertThat(rt.getGlobalStringProperty("stable")).isEqualTo("a,A,\u00e1,a,B,b");
+    }
+  }
+
+  // Constructor options are decoded into typed records, which validate them as they're decoded.
+  @Test
+  public void testIntlOptionsAreValidatedAndDefaulted() throws JSRangeErrorException {
+    HashMap<String, Object> numberOptions = new HashMap<>();
+    numberOptions.put("minimumFractionDigits", 2);
+    numberOptions.put("useGrouping", false);
+    assertThat(new NumberFormat(Arrays.asList("en-US"), numberOptions).format(1234))
+        .isEqualTo("1234.00");
+
+    numberOptions.put("maximumFractionDigits", 1.0);
+    try {
+      new NumberFormat(Arrays.asList("en-US"), numberOptions);
+      fail("maximumFractionDigits below minimumFractionDigits should throw");
+    } catch (JSRangeErrorException expected) {
+    }
+
+    HashMap<String, Object> collatorOptions = new HashMap<>();
+    collatorOptions.put("numeric", "true");
+    try {
+      new Collator(Arrays.asList("en-US"), collatorOptions);
+      fail("a string value for a boolean option should throw");
+    } catch (JSRangeErrorException expected) {
+    }
+
+    HashMap<String, Object> dateOptions = new HashMap<>();
+    dateOptions.put("timeZone", "UTC");
+    dateOptions.put("month", "bogus");
+    try {
+      new DateTimeFormat(Arrays.asList("en-US"), dateOptions);
+      fail("an invalid month should throw");
+    } catch (JSRangeErrorException expected) {
+    }
+
+    // Defaulting year, month and day leaves the caller's options alone.
+    dateOptions.remove("month");
+    DateTimeFormat dateTimeFormat = new DateTimeFormat(Arrays.asList("en-US"), dateOptions);
+    assertThat(dateTimeFormat.resolvedOptions().get("year")).isEqualTo("numeric");
+    assertThat(dateOptions).hasSize(1);
+    assertThat(dateTimeFormat.format(0)).isEqualTo("1/1/1970");
+  }
 }
@@ -16,6 +16,8 @@
 #include "hermes/VM/JSObject.h"
 #include "hermes/VM/StringPrimitive.h"
 
+#include "llvh/ADT/ArrayRef.h"
+
 #include <string>
 #include <unordered_map>
 #include <vector>
@@ -65,7 +67,12 @@ class Option {
 };
 
 using Options = std::unordered_map<std::u16string, Option>;
-using Part = std::unordered_map<std::u16string, std::u16string>;
+
+/// One element of the result of formatToParts.
+struct Part {
+  std::u16string type;
+  std::u16string value;
+};
 
 /// For functions which take locales, most of
 /// https://tc39.es/ecma402/#sec-canonicalizelocalelist has been done
@@ -122,6 +129,20 @@ class Collator : public vm::DecoratedObject::Decoration {
   Options resolvedOptions() noexcept;
 
   double compare(const std::u16string &x, const std::u16string &y) noexcept;
+  /// \return whether getSortKeys() is supported, so callers can check before
+  /// gathering the strings to pass it.
+  bool supportsSortKeys() noexcept;
+  /// Compute a sort key for each of \p strings, such that comparing the keys
+  /// of two strings bytewise as unsigned values, a key ordering before any
+  /// longer key it is a prefix of, orders them the same way as compare().
+  /// The keys are packed back to back into \p keys, and \p ends receives the
+  /// offset just past each of them.  \return false if the platform doesn't
+  /// support sort keys (see supportsSortKeys()), in which case callers must
+  /// fall back to compare().
+  bool getSortKeys(
+      const std::vector<std::u16string> &strings,
+      std::vector<uint8_t> &keys,
+      std::vector<uint32_t> &ends) noexcept;
 };
 
 class DateTimeFormat : public vm::DecoratedObject::Decoration {
@@ -173,6 +194,10 @@ class NumberFormat : public vm::DecoratedObject::Decoration {
   Options resolvedOptions() noexcept;
 
   std::u16string format(double jsTimeValue) noexcept;
+  /// Format each element of \p numbers as if by calling format() on it,
+  /// allowing the platform to amortize the per-call overhead.
+  std::vector<std::u16string> formatMany(
+      llvh::ArrayRef<double> numbers) noexcept;
   std::vector<Part> formatToParts(double jsTimeValue) noexcept;
 };
 
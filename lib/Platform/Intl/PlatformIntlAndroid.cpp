@@ -15,6 +15,11 @@
 
 #include <fbjni/fbjni.h>
 
+#include <algorithm>
+#include <cstring>
+#include <list>
+#include <mutex>
+
 using namespace ::facebook;
 using namespace ::hermes;
 
@@ -23,52 +28,93 @@ namespace platform_intl {
 
 namespace {
 
-template <typename E = jobject>
-struct JArrayList : jni::JavaClass<JArrayList<E>, jni::JList<E>> {
-  constexpr static auto kJavaDescriptor = "Ljava/util/ArrayList;";
+using JStringArray = jni::JArrayClass<jstring>;
+
+/// The type of a Java method taking locales and options, as encoded by
+/// localesToJava() and JavaOptions, and returning \p R.
+template <typename R>
+using WithLocalesAndOptions =
+    R(jni::alias_ref<JStringArray>,
+      jni::alias_ref<JStringArray>,
+      jni::alias_ref<jni::JArrayByte>,
+      jni::alias_ref<JStringArray>,
+      jni::alias_ref<jni::JArrayDouble>);
+
+/// Option type codes, as defined by NativeOptions.
+enum OptionType : jbyte {
+  kOptionBoolean = 0,
+  kOptionNumber = 1,
+  kOptionString = 2,
+};
 
-  using Super = jni::JavaClass<JArrayList<E>, jni::JList<E>>;
+class JNativeOptions : public jni::JavaClass<JNativeOptions> {
+ public:
+  static constexpr auto kJavaDescriptor =
+      "Lcom/facebook/hermes/intl/NativeOptions;";
 
-  static jni::local_ref<JArrayList<E>> create() {
-    return Super::newInstance();
+  jni::local_ref<JStringArray> getKeys() {
+    static const auto method =
+        javaClassStatic()->getMethod<jni::local_ref<JStringArray>()>(
+            "getKeys");
+    return method(self());
+  }
+
+  jni::local_ref<jni::JArrayByte> getTypes() {
+    static const auto method =
+        javaClassStatic()->getMethod<jni::local_ref<jni::JArrayByte>()>(
+            "getTypes");
+    return method(self());
   }
 
-  static jni::local_ref<JArrayList<E>> create(int initialCapacity) {
-    return Super::newInstance(initialCapacity);
+  jni::local_ref<JStringArray> getStrings() {
+    static const auto method =
+        javaClassStatic()->getMethod<jni::local_ref<JStringArray>()>(
+            "getStrings");
+    return method(self());
   }
 
-  bool add(jni::alias_ref<jobject> elem) {
-    static auto addMethod =
-        Super::javaClassStatic()
-            ->template getMethod<jboolean(jni::alias_ref<jobject>)>("add");
-    return addMethod(Super::self(), elem);
+  jni::local_ref<jni::JArrayDouble> getNumbers() {
+    static const auto method =
+        javaClassStatic()->getMethod<jni::local_ref<jni::JArrayDouble>()>(
+            "getNumbers");
+    return method(self());
   }
 };
 
-template <typename K = jobject, typename V = jobject>
-struct JHashMap : jni::JavaClass<JHashMap<K, V>, jni::JMap<K, V>> {
-  constexpr static auto kJavaDescriptor = "Ljava/util/HashMap;";
+class JFormattedParts : public jni::JavaClass<JFormattedParts> {
+ public:
+  static constexpr auto kJavaDescriptor =
+      "Lcom/facebook/hermes/intl/FormattedParts;";
+
+  static jni::local_ref<jni::JArrayClass<jstring>> getTypeNames() {
+    static const auto method =
+        javaClassStatic()
+            ->getStaticMethod<jni::local_ref<jni::JArrayClass<jstring>>()>(
+                "getTypeNames");
+    return method(javaClassStatic());
+  }
 
-  using Super = jni::JavaClass<JHashMap<K, V>, jni::JMap<K, V>>;
+  jni::local_ref<jstring> getValue() {
+    static const auto method =
+        javaClassStatic()->getMethod<jni::local_ref<jstring>()>("getValue");
+    return method(self());
+  }
 
-  static jni::local_ref<JHashMap<K, V>> create() {
-    return Super::newInstance();
+  jni::local_ref<jni::JArrayInt> getEnds() {
+    static const auto method =
+        javaClassStatic()->getMethod<jni::local_ref<jni::JArrayInt>()>(
+            "getEnds");
+    return method(self());
   }
 
-  void put(jni::alias_ref<jobject> key, jni::alias_ref<jobject> val) {
-    static auto putMethod =
-        Super::javaClassStatic()
-            ->template getMethod<jni::alias_ref<jobject>(
-                jni::alias_ref<jobject>, jni::alias_ref<jobject>)>("put");
-    putMethod(Super::self(), key, val);
+  jni::local_ref<jni::JArrayByte> getTypes() {
+    static const auto method =
+        javaClassStatic()->getMethod<jni::local_ref<jni::JArrayByte>()>(
+            "getTypes");
+    return method(self());
   }
 };
 
-using JLocalesList = jni::JList<jni::JString>;
-using JOptionsMap = jni::JMap<jni::JString, jni::JObject>;
-using JPartMap = jni::JMap<jni::JString, jni::JString>;
-using JPartsList = jni::JList<JPartMap>;
-
 jni::local_ref<jstring> stringToJava(const std::u16string &utf16) {
   // Work around a bug in fbjni where make_jstring returns null for empty
   // u16strings.
@@ -83,100 +129,108 @@ jni::local_ref<jstring> stringToJava(const std::u16string &utf16) {
   return jni::adopt_local(result);
 }
 
-jni::local_ref<JLocalesList> localesToJava(
-    std::vector<std::u16string> locales) {
-  jni::local_ref<JArrayList<jni::JString>> ret =
-      JArrayList<jni::JString>::create(locales.size());
-  for (const auto &locale : locales) {
-    ret->add(stringToJava(locale));
+jni::local_ref<JStringArray> localesToJava(
+    const std::vector<std::u16string> &locales) {
+  auto ret = JStringArray::newArray(locales.size());
+  for (size_t i = 0; i < locales.size(); ++i) {
+    ret->setElement(i, stringToJava(locales[i]).get());
   }
   return ret;
 }
 
-jni::local_ref<JOptionsMap> optionsToJava(const Options &options) {
-  auto ret = JHashMap<jni::JString, jni::JObject>::create();
-  for (const auto &kv : options) {
-    jni::local_ref<jni::JObject> jvalue;
-    if (kv.second.isBool()) {
-      jvalue = jni::autobox(static_cast<jboolean>(kv.second.getBool()));
-    } else if (kv.second.isNumber()) {
-      jvalue = jni::autobox(static_cast<jdouble>(kv.second.getNumber()));
-    } else {
-      assert(kv.second.isString() && "Option is not valid type");
-      jvalue = stringToJava(kv.second.getString());
+/// Options encoded for Java as the parallel arrays of NativeOptions:
+/// the name and type of each option, and its value, in strings if it is
+/// a string and in numbers otherwise.  Booleans are stored as 0 or 1.
+/// The primitive arrays are each filled with a single JNI call, instead
+/// of a call per boxed value and per map insertion.
+class JavaOptions {
+ public:
+  explicit JavaOptions(const Options &options)
+      : keys_(JStringArray::newArray(options.size())),
+        types_(jni::JArrayByte::newArray(options.size())),
+        strings_(JStringArray::newArray(options.size())),
+        numbers_(jni::JArrayDouble::newArray(options.size())) {
+    std::vector<jbyte> types(options.size());
+    std::vector<jdouble> numbers(options.size());
+    size_t i = 0;
+    for (const auto &kv : options) {
+      keys_->setElement(i, stringToJava(kv.first).get());
+      if (kv.second.isBool()) {
+        types[i] = kOptionBoolean;
+        numbers[i] = kv.second.getBool() ? 1 : 0;
+      } else if (kv.second.isNumber()) {
+        types[i] = kOptionNumber;
+        numbers[i] = kv.second.getNumber();
+      } else {
+        assert(kv.second.isString() && "Option is not valid type");
+        types[i] = kOptionString;
+        strings_->setElement(i, stringToJava(kv.second.getString()).get());
+      }
+      ++i;
     }
-    ret->put(stringToJava(kv.first), jvalue);
+    types_->setRegion(0, types.size(), types.data());
+    numbers_->setRegion(0, numbers.size(), numbers.data());
+  }
+
+  jni::alias_ref<JStringArray> keys() const {
+    return keys_;
+  }
+  jni::alias_ref<jni::JArrayByte> types() const {
+    return types_;
+  }
+  jni::alias_ref<JStringArray> strings() const {
+    return strings_;
+  }
+  jni::alias_ref<jni::JArrayDouble> numbers() const {
+    return numbers_;
   }
-  return ret;
-}
+
+ private:
+  jni::local_ref<JStringArray> keys_;
+  jni::local_ref<jni::JArrayByte> types_;
+  jni::local_ref<JStringArray> strings_;
+  jni::local_ref<jni::JArrayDouble> numbers_;
+};
 
 std::u16string stringFromJava(jni::alias_ref<jni::JString> result) {
   return result->toU16String();
 }
 
-Options optionsFromJava(jni::alias_ref<JOptionsMap> result) {
+Options optionsFromJava(jni::local_ref<JNativeOptions> &&result) {
   if (!result) {
     return Options();
   }
 
-  Options ret;
-  for (const auto &kv : *result) {
-    if (!kv.first || !kv.second) {
-      // ignore nulls
-      continue;
-    }
-
-    if (jni::JBoolean::javaClassStatic()->isAssignableFrom(
-            kv.second->getClass())) {
-      ret.emplace(
-          stringFromJava(kv.first),
-          Option(static_cast<bool>(
-              jni::static_ref_cast<jni::JBoolean>(kv.second)->booleanValue())));
-    } else if (jni::JInteger::javaClassStatic()->isAssignableFrom(
-                   kv.second->getClass())) {
-      ret.emplace(
-          stringFromJava(kv.first),
-          Option(static_cast<double>(
-              jni::static_ref_cast<jni::JInteger>(kv.second)->intValue())));
-    } else if (jni::JDouble::javaClassStatic()->isAssignableFrom(
-                   kv.second->getClass())) {
-      ret.emplace(
-          stringFromJava(kv.first),
-          Option(jni::static_ref_cast<jni::JDouble>(kv.second)->doubleValue()));
-    } else if (jni::JString::javaClassStatic()->isAssignableFrom(
-                   kv.second->getClass())) {
-      ret.emplace(
-          stringFromJava(kv.first),
-          Option(
-              stringFromJava(jni::static_ref_cast<jni::JString>(kv.second))));
-    } else {
-      // ignore mistyped value
-    }
-  }
-  return ret;
-}
-
-// Part: Map<String, String>
-Part partFromJava(jni::alias_ref<JPartMap> result) {
-  if (!result) {
-    return Part();
-  }
+  auto jKeys = result->getKeys();
+  size_t size = jKeys->size();
+  std::vector<jbyte> types(size);
+  result->getTypes()->getRegion(0, size, types.data());
+  std::vector<jdouble> numbers(size);
+  result->getNumbers()->getRegion(0, size, numbers.data());
+  auto jStrings = result->getStrings();
 
-  Part ret;
-  for (const auto &kv : *result) {
-    if (!kv.first || !kv.second) {
-      // ignore nulls
-      continue;
+  Options ret;
+  for (size_t i = 0; i < size; ++i) {
+    std::u16string key = stringFromJava(jKeys->getElement(i));
+    switch (types[i]) {
+      case kOptionBoolean:
+        ret.emplace(std::move(key), Option(numbers[i] != 0));
+        break;
+      case kOptionNumber:
+        ret.emplace(std::move(key), Option(numbers[i]));
+        break;
+      default:
+        ret.emplace(
+            std::move(key), Option(stringFromJava(jStrings->getElement(i))));
+        break;
     }
-
-    ret.emplace(stringFromJava(kv.first), stringFromJava(kv.second));
   }
   return ret;
 }
 
 vm::CallResult<std::vector<std::u16string>> localesFromJava(
     vm::Runtime &runtime,
-    vm::CallResult<jni::local_ref<JLocalesList>> &&result) {
+    vm::CallResult<jni::local_ref<JStringArray>> &&result) {
   if (LLVM_UNLIKELY(result == vm::ExecutionStatus::EXCEPTION)) {
     return vm::ExecutionStatus::EXCEPTION;
   }
@@ -186,55 +240,216 @@ vm::CallResult<std::vector<std::u16string>> localesFromJava(
     return std::vector<std::u16string>();
   }
 
-  for (const auto &element : **result) {
-    ret.push_back(stringFromJava(element));
+  size_t size = (*result)->size();
+  ret.reserve(size);
+  for (size_t i = 0; i < size; ++i) {
+    ret.push_back(stringFromJava((*result)->getElement(i)));
   }
   return ret;
 }
 
-std::vector<Part> partsFromJava(jni::local_ref<JPartsList> &&result) {
-  std::vector<Part> ret;
+/// \return the part types, indexed by the codes in FormattedParts.  The
+/// table is fetched from Java once.
+const std::vector<std::u16string> &partTypeNames() {
+  // Intentionally leaked to avoid destruction order problems.
+  static const auto *names = [] {
+    auto *ret = new std::vector<std::u16string>();
+    auto jNames = JFormattedParts::getTypeNames();
+    for (size_t i = 0, e = jNames->size(); i != e; ++i) {
+      ret->push_back(stringFromJava(jNames->getElement(i)));
+    }
+    return ret;
+  }();
+  return *names;
+}
+
+// Parts: FormattedParts, the formatted string along with the end offset
+// and type code of each part.
+std::vector<Part> partsFromJava(jni::local_ref<JFormattedParts> &&result) {
   if (!result) {
     return {};
   }
 
-  for (const auto &element : *result) {
-    ret.push_back(partFromJava(element));
+  std::u16string value = stringFromJava(result->getValue());
+  auto jEnds = result->getEnds();
+  std::vector<jint> ends(jEnds->size());
+  jEnds->getRegion(0, ends.size(), ends.data());
+  auto jTypes = result->getTypes();
+  std::vector<jbyte> types(jTypes->size());
+  jTypes->getRegion(0, types.size(), types.data());
+  assert(ends.size() == types.size() && "mismatched part arrays");
+
+  const std::vector<std::u16string> &typeNames = partTypeNames();
+  std::vector<Part> ret;
+  ret.reserve(ends.size());
+  jint start = 0;
+  for (size_t i = 0; i != ends.size(); ++i) {
+    ret.push_back(
+        Part{typeNames[static_cast<uint8_t>(types[i])],
+             value.substr(start, ends[i] - start)});
+    start = ends[i];
+  }
+  return ret;
+}
+
+/// Format \p values with one JNI call to \p formatBatch, a Java method
+/// taking the values and an array it fills with the end offset of each
+/// result, and returning the results concatenated.
+template <typename FormatBatch>
+std::vector<std::u16string> formatManyFromJava(
+    llvh::ArrayRef<double> values,
+    FormatBatch formatBatch) {
+  auto jValues = jni::JArrayDouble::newArray(values.size());
+  jValues->setRegion(0, values.size(), values.data());
+  auto jEnds = jni::JArrayInt::newArray(values.size());
+  std::u16string all = stringFromJava(formatBatch(jValues, jEnds));
+  std::vector<jint> ends(values.size());
+  jEnds->getRegion(0, ends.size(), ends.data());
+
+  std::vector<std::u16string> ret;
+  ret.reserve(values.size());
+  jint start = 0;
+  for (jint end : ends) {
+    ret.emplace_back(all, start, end - start);
+    start = end;
   }
   return ret;
 }
 
+/// Build a key which uniquely identifies a (locales, options) pair.
+/// Options are sorted by name, so the key doesn't depend on the
+/// iteration order of the map.  Each value is prefixed with its type, so
+/// e.g. the number 1 and the string "1" don't collide.  Control
+/// characters are used as separators since they cannot appear in a
+/// valid locale tag or option name.
+std::u16string cacheKey(
+    const std::vector<std::u16string> &locales,
+    const Options &options) {
+  std::u16string key;
+  for (const auto &locale : locales) {
+    key.append(locale);
+    key.push_back(u'\x1f');
+  }
+  key.push_back(u'\x1e');
+
+  std::vector<const Options::value_type *> sorted;
+  sorted.reserve(options.size());
+  for (const auto &kv : options) {
+    sorted.push_back(&kv);
+  }
+  std::sort(sorted.begin(), sorted.end(), [](const auto *a, const auto *b) {
+    return a->first < b->first;
+  });
+  for (const auto *kv : sorted) {
+    key.append(kv->first);
+    key.push_back(u'\x1d');
+    const Option &opt = kv->second;
+    if (opt.isBool()) {
+      key.push_back(u'b');
+      key.push_back(opt.getBool() ? u'1' : u'0');
+    } else if (opt.isNumber()) {
+      // Append the bit pattern of the double, so distinct numbers
+      // never collide.
+      key.push_back(u'n');
+      double num = opt.getNumber();
+      char16_t bits[sizeof(double) / sizeof(char16_t)];
+      std::memcpy(bits, &num, sizeof(num));
+      key.append(bits, sizeof(bits) / sizeof(char16_t));
+    } else {
+      key.push_back(u's');
+      key.append(opt.getString());
+    }
+    key.push_back(u'\x1f');
+  }
+  return key;
+}
+
+/// A bounded, thread-safe LRU cache mapping a cacheKey() to a
+/// configured Java object.  Instances are shared by every runtime in
+/// the process, so the Java objects stored here must be safe to use
+/// concurrently from multiple threads.
+template <typename T>
+class JavaObjectCache {
+ public:
+  explicit JavaObjectCache(size_t capacity) : capacity_(capacity) {}
+
+  /// \return the cached object for \p key, or null if it is not present.
+  jni::global_ref<T> get(const std::u16string &key) {
+    std::lock_guard<std::mutex> lock(mutex_);
+    auto it = index_.find(key);
+    if (it == index_.end()) {
+      return nullptr;
+    }
+    entries_.splice(entries_.begin(), entries_, it->second);
+    return it->second->second;
+  }
+
+  /// Insert \p value under \p key, evicting the least recently used
+  /// entry if the cache is full.
+  void put(const std::u16string &key, const jni::global_ref<T> &value) {
+    std::lock_guard<std::mutex> lock(mutex_);
+    auto it = index_.find(key);
+    if (it != index_.end()) {
+      entries_.splice(entries_.begin(), entries_, it->second);
+      return;
+    }
+    entries_.emplace_front(key, value);
+    index_.emplace(key, entries_.begin());
+    if (entries_.size() > capacity_) {
+      index_.erase(entries_.back().first);
+      entries_.pop_back();
+    }
+  }
+
+ private:
+  using Entry = std::pair<std::u16string, jni::global_ref<T>>;
+
+  const size_t capacity_;
+  std::mutex mutex_;
+  /// Most recently used entries are at the front.
+  std::list<Entry> entries_;
+  std::unordered_map<std::u16string, typename std::list<Entry>::iterator>
+      index_;
+};
+
 class JIntl : public jni::JavaClass<JIntl> {
  public:
   static constexpr auto kJavaDescriptor = "Lcom/facebook/hermes/intl/Intl;";
 
-  static jni::local_ref<JLocalesList> getCanonicalLocales(
-      jni::alias_ref<JLocalesList> locales) {
+  static jni::local_ref<jstring> getDefaultsKey() {
+    static const auto method =
+        javaClassStatic()->getStaticMethod<jni::local_ref<jstring>()>(
+            "getDefaultsKey");
+    return method(javaClassStatic());
+  }
+
+  static jni::local_ref<JStringArray> getCanonicalLocales(
+      jni::alias_ref<JStringArray> locales) {
     static const auto method =
         javaClassStatic()
-            ->getStaticMethod<jni::local_ref<JLocalesList>(
-                jni::alias_ref<JLocalesList> locales)>("getCanonicalLocales");
+            ->getStaticMethod<jni::local_ref<JStringArray>(
+                jni::alias_ref<JStringArray> locales)>("getCanonicalLocales");
     return method(javaClassStatic(), locales);
   }
 
   static jni::local_ref<jstring> toLocaleLowerCase(
-      jni::alias_ref<JLocalesList> locales,
+      jni::alias_ref<JStringArray> locales,
       jni::alias_ref<jstring> str) {
-    auto method =
+    static const auto method =
         javaClassStatic()
             ->getStaticMethod<jni::local_ref<jstring>(
-                jni::alias_ref<JLocalesList> locales, jni::alias_ref<jstring>)>(
+                jni::alias_ref<JStringArray> locales, jni::alias_ref<jstring>)>(
                 "toLocaleLowerCase");
     return method(javaClassStatic(), locales, str);
   }
 
   static jni::local_ref<jstring> toLocaleUpperCase(
-      jni::alias_ref<JLocalesList> locales,
+      jni::alias_ref<JStringArray> locales,
       jni::alias_ref<jstring> str) {
     static const auto method =
         javaClassStatic()
             ->getStaticMethod<jni::local_ref<jstring>(
-                jni::alias_ref<JLocalesList> locales, jni::alias_ref<jstring>)>(
+                jni::alias_ref<JStringArray> locales, jni::alias_ref<jstring>)>(
                 "toLocaleUpperCase");
     return method(javaClassStatic(), locales, str);
   }
@@ -284,26 +499,37 @@ class JCollator : public jni::JavaClass<JCollator> {
   static constexpr auto kJavaDescriptor = "Lcom/facebook/hermes/intl/Collator;";
 
   static jni::local_ref<javaobject> create(
-      jni::alias_ref<JLocalesList> locales,
-      jni::alias_ref<JOptionsMap> options) {
-    return newInstance(locales, options);
+      jni::alias_ref<JStringArray> locales,
+      const JavaOptions &options) {
+    return newInstance(
+        locales,
+        options.keys(),
+        options.types(),
+        options.strings(),
+        options.numbers());
   }
 
-  static jni::local_ref<JLocalesList> supportedLocalesOf(
-      jni::alias_ref<JLocalesList> locales,
-      jni::alias_ref<JOptionsMap> options) {
+  static jni::local_ref<JStringArray> supportedLocalesOf(
+      jni::alias_ref<JStringArray> locales,
+      const JavaOptions &options) {
     static const auto method =
         javaClassStatic()
-            ->getStaticMethod<jni::local_ref<JLocalesList>(
-                jni::alias_ref<JLocalesList> locales,
-                jni::alias_ref<JOptionsMap> options)>("supportedLocalesOf");
-    return method(javaClassStatic(), locales, options);
+            ->getStaticMethod<
+                WithLocalesAndOptions<jni::local_ref<JStringArray>>>(
+                "supportedLocalesOf");
+    return method(
+        javaClassStatic(),
+        locales,
+        options.keys(),
+        options.types(),
+        options.strings(),
+        options.numbers());
   }
 
-  jni::local_ref<JOptionsMap> resolvedOptions() {
+  jni::local_ref<JNativeOptions> resolvedOptions() {
     static const auto method =
-        javaClassStatic()->getMethod<jni::local_ref<JOptionsMap>()>(
-            "resolvedOptions");
+        javaClassStatic()->getMethod<jni::local_ref<JNativeOptions>()>(
+            "resolvedNativeOptions");
     return method(self());
   }
 
@@ -314,6 +540,17 @@ class JCollator : public jni::JavaClass<JCollator> {
                 jni::alias_ref<jstring>, jni::alias_ref<jstring>)>("compare");
     return method(self(), x, y);
   }
+
+  jni::local_ref<jni::JArrayByte> getSortKeys(
+      jni::alias_ref<jstring> text,
+      jni::alias_ref<jni::JArrayInt> ends) {
+    static const auto method =
+        javaClassStatic()
+            ->getMethod<jni::local_ref<jni::JArrayByte>(
+                jni::alias_ref<jstring>, jni::alias_ref<jni::JArrayInt>)>(
+                "getSortKeys");
+    return method(self(), text, ends);
+  }
 };
 
 class CollatorAndroid : public Collator {
@@ -336,6 +573,32 @@ class CollatorAndroid : public Collator {
     return jCollator_->compare(stringToJava(x), stringToJava(y));
   }
 
+  bool getSortKeys(
+      const std::vector<std::u16string> &strings,
+      std::vector<uint8_t> &keys,
+      std::vector<uint32_t> &ends) noexcept {
+    // Pass the strings concatenated, along with the offset just past each
+    // of them, and fetch all the keys with one call into Java.  This takes
+    // a constant number of JNI calls, rather than one per string.
+    std::u16string text;
+    std::vector<jint> jintEnds;
+    jintEnds.reserve(strings.size());
+    for (const auto &str : strings) {
+      text.append(str);
+      jintEnds.push_back(text.size());
+    }
+    auto jEnds = jni::JArrayInt::newArray(strings.size());
+    jEnds->setRegion(0, jintEnds.size(), jintEnds.data());
+    auto jKeys = jCollator_->getSortKeys(stringToJava(text), jEnds);
+
+    jEnds->getRegion(0, jintEnds.size(), jintEnds.data());
+    ends.assign(jintEnds.begin(), jintEnds.end());
+
+    keys.resize(jKeys->size());
+    jKeys->getRegion(0, keys.size(), reinterpret_cast<jbyte *>(keys.data()));
+    return true;
+  }
+
  private:
   jni::global_ref<JCollator> jCollator_;
 };
@@ -353,19 +616,43 @@ vm::CallResult<std::vector<std::u16string>> Collator::supportedLocalesOf(
     return localesFromJava(
         runtime,
         JCollator::supportedLocalesOf(
-            localesToJava(locales), optionsToJava(options)));
+            localesToJava(locales), JavaOptions(options)));
   } catch (const std::exception &ex) {
     return runtime.raiseRangeError(ex.what());
   }
 }
 
+namespace {
+
+constexpr size_t kCollatorCacheCapacity = 32;
+
+/// Process-wide cache of resolved Java collators, keyed by the
+/// (locales, options) they were constructed with.  This makes repeated
+/// String.prototype.localeCompare calls, which would otherwise create a
+/// new collator every time, cost a single compare.
+JavaObjectCache<JCollator> &collatorCache() {
+  // Intentionally leaked to avoid destruction order problems.
+  static auto *cache = new JavaObjectCache<JCollator>(kCollatorCacheCapacity);
+  return *cache;
+}
+
+} // namespace
+
 vm::ExecutionStatus CollatorAndroid::initialize(
     vm::Runtime &runtime,
     const std::vector<std::u16string> &locales,
     const Options &options) noexcept {
   try {
-    jCollator_ = jni::make_global(
-        JCollator::create(localesToJava(locales), optionsToJava(options)));
+    // A collator resolved against a different default locale must not be
+    // reused, so fold it into the key, as for DateTimeFormat.
+    std::u16string key = cacheKey(locales, options);
+    key.append(stringFromJava(JIntl::getDefaultsKey()));
+    jCollator_ = collatorCache().get(key);
+    if (!jCollator_) {
+      jCollator_ = jni::make_global(
+          JCollator::create(localesToJava(locales), JavaOptions(options)));
+      collatorCache().put(key, jCollator_);
+    }
   } catch (const std::exception &ex) {
     return runtime.raiseRangeError(ex.what());
   }
@@ -396,6 +683,17 @@ double Collator::compare(
   return static_cast<CollatorAndroid *>(this)->compare(x, y);
 }
 
+bool Collator::supportsSortKeys() noexcept {
+  return true;
+}
+
+bool Collator::getSortKeys(
+    const std::vector<std::u16string> &strings,
+    std::vector<uint8_t> &keys,
+    std::vector<uint32_t> &ends) noexcept {
+  return static_cast<CollatorAndroid *>(this)->getSortKeys(strings, keys, ends);
+}
+
 namespace {
 
 class JDateTimeFormat : public jni::JavaClass<JDateTimeFormat> {
@@ -404,26 +702,37 @@ class JDateTimeFormat : public jni::JavaClass<JDateTimeFormat> {
       "Lcom/facebook/hermes/intl/DateTimeFormat;";
 
   static jni::local_ref<javaobject> create(
-      jni::alias_ref<JLocalesList> locales,
-      jni::alias_ref<JOptionsMap> options) {
-    return newInstance(locales, options);
+      jni::alias_ref<JStringArray> locales,
+      const JavaOptions &options) {
+    return newInstance(
+        locales,
+        options.keys(),
+        options.types(),
+        options.strings(),
+        options.numbers());
   }
 
-  static jni::local_ref<JLocalesList> supportedLocalesOf(
-      jni::alias_ref<JLocalesList> locales,
-      jni::alias_ref<JOptionsMap> options) {
+  static jni::local_ref<JStringArray> supportedLocalesOf(
+      jni::alias_ref<JStringArray> locales,
+      const JavaOptions &options) {
     static const auto method =
         javaClassStatic()
-            ->getStaticMethod<jni::local_ref<JLocalesList>(
-                jni::alias_ref<JLocalesList> locales,
-                jni::alias_ref<JOptionsMap> options)>("supportedLocalesOf");
-    return method(javaClassStatic(), locales, options);
+            ->getStaticMethod<
+                WithLocalesAndOptions<jni::local_ref<JStringArray>>>(
+                "supportedLocalesOf");
+    return method(
+        javaClassStatic(),
+        locales,
+        options.keys(),
+        options.types(),
+        options.strings(),
+        options.numbers());
   }
 
-  jni::local_ref<JOptionsMap> resolvedOptions() {
+  jni::local_ref<JNativeOptions> resolvedOptions() {
     static const auto method =
-        javaClassStatic()->getMethod<jni::local_ref<JOptionsMap>()>(
-            "resolvedOptions");
+        javaClassStatic()->getMethod<jni::local_ref<JNativeOptions>()>(
+            "resolvedNativeOptions");
     return method(self());
   }
 
@@ -433,9 +742,17 @@ class JDateTimeFormat : public jni::JavaClass<JDateTimeFormat> {
     return method(self(), jsTimeValue);
   }
 
-  jni::local_ref<JPartsList> formatToParts(double jsTimeValue) {
+  jint formatInto(double jsTimeValue, jni::alias_ref<jni::JArrayChar> buffer) {
+    static const auto method =
+        javaClassStatic()
+            ->getMethod<jint(double, jni::alias_ref<jni::JArrayChar>)>(
+                "formatInto");
+    return method(self(), jsTimeValue, buffer);
+  }
+
+  jni::local_ref<JFormattedParts> formatToParts(double jsTimeValue) {
     static const auto method =
-        javaClassStatic()->getMethod<jni::alias_ref<JPartsList>(double)>(
+        javaClassStatic()->getMethod<jni::alias_ref<JFormattedParts>(double)>(
             "formatToParts");
     return method(self(), jsTimeValue);
   }
@@ -463,7 +780,22 @@ class DateTimeFormatAndroid : public DateTimeFormat {
     // I am incorrect, this will need to add a try/catch and take a
     // runtime to call raiseRangeError on it.  This is true for all the
     // format methods.
-    return stringFromJava(jDateTimeFormat_->format(jsTimeValue));
+    // Format into a buffer owned by this object, and copy straight from it
+    // into the result, rather than creating a Java String per call. The
+    // buffer grows to fit the longest result seen so far.
+    if (!formatBuffer_) {
+      formatBuffer_ =
+          jni::make_global(jni::JArrayChar::newArray(kFormatBufferInitialSize));
+    }
+    jint length = jDateTimeFormat_->formatInto(jsTimeValue, formatBuffer_);
+    if (length > static_cast<jint>(formatBuffer_->size())) {
+      formatBuffer_ = jni::make_global(jni::JArrayChar::newArray(length));
+      length = jDateTimeFormat_->formatInto(jsTimeValue, formatBuffer_);
+    }
+    std::u16string result(length, u'\0');
+    formatBuffer_->getRegion(
+        0, length, reinterpret_cast<jchar *>(&result[0]));
+    return result;
   }
 
   std::vector<Part> formatToParts(double jsTimeValue) noexcept {
@@ -471,7 +803,10 @@ class DateTimeFormatAndroid : public DateTimeFormat {
   }
 
  private:
+  static constexpr jint kFormatBufferInitialSize = 64;
+
   jni::global_ref<JDateTimeFormat> jDateTimeFormat_;
+  jni::global_ref<jni::JArrayChar> formatBuffer_;
 };
 } // namespace
 
@@ -487,19 +822,46 @@ vm::CallResult<std::vector<std::u16string>> DateTimeFormat::supportedLocalesOf(
     return localesFromJava(
         runtime,
         JDateTimeFormat::supportedLocalesOf(
-            localesToJava(locales), optionsToJava(options)));
+            localesToJava(locales), JavaOptions(options)));
   } catch (const std::exception &ex) {
     return runtime.raiseRangeError(ex.what());
   }
 }
 
+namespace {
+
+constexpr size_t kDateTimeFormatCacheCapacity = 32;
+
+/// Process-wide cache of configured Java date time formats, keyed by
+/// the (locales, options) they were constructed with and the default
+/// locale and time zone at construction time.  This lets
+/// Date.prototype.toLocaleString and friends, which create a new
+/// DateTimeFormat for every call, format at steady-state cost.
+JavaObjectCache<JDateTimeFormat> &dateTimeFormatCache() {
+  // Intentionally leaked to avoid destruction order problems.
+  static auto *cache =
+      new JavaObjectCache<JDateTimeFormat>(kDateTimeFormatCacheCapacity);
+  return *cache;
+}
+
+} // namespace
+
 vm::ExecutionStatus DateTimeFormatAndroid::initialize(
     vm::Runtime &runtime,
     const std::vector<std::u16string> &locales,
     const Options &options) noexcept {
   try {
-    jDateTimeFormat_ = jni::make_global(JDateTimeFormat::create(
-        localesToJava(locales), optionsToJava(options)));
+    // A formatter resolved against a different default locale or time
+    // zone must not be reused, so fold them into the key.  Stale
+    // entries just age out of the cache.
+    std::u16string key = cacheKey(locales, options);
+    key.append(stringFromJava(JIntl::getDefaultsKey()));
+    jDateTimeFormat_ = dateTimeFormatCache().get(key);
+    if (!jDateTimeFormat_) {
+      jDateTimeFormat_ = jni::make_global(JDateTimeFormat::create(
+          localesToJava(locales), JavaOptions(options)));
+      dateTimeFormatCache().put(key, jDateTimeFormat_);
+    }
   } catch (const std::exception &ex) {
     return runtime.raiseRangeError(ex.what());
   }
@@ -540,26 +902,37 @@ class JNumberFormat : public jni::JavaClass<JNumberFormat> {
       "Lcom/facebook/hermes/intl/NumberFormat;";
 
   static jni::local_ref<javaobject> create(
-      jni::alias_ref<JLocalesList> locales,
-      jni::alias_ref<JOptionsMap> options) {
-    return newInstance(locales, options);
+      jni::alias_ref<JStringArray> locales,
+      const JavaOptions &options) {
+    return newInstance(
+        locales,
+        options.keys(),
+        options.types(),
+        options.strings(),
+        options.numbers());
   }
 
-  static jni::local_ref<JLocalesList> supportedLocalesOf(
-      jni::alias_ref<JLocalesList> locales,
-      jni::alias_ref<JOptionsMap> options) {
+  static jni::local_ref<JStringArray> supportedLocalesOf(
+      jni::alias_ref<JStringArray> locales,
+      const JavaOptions &options) {
     static const auto method =
         javaClassStatic()
-            ->getStaticMethod<jni::local_ref<JLocalesList>(
-                jni::alias_ref<JLocalesList> locales,
-                jni::alias_ref<JOptionsMap> options)>("supportedLocalesOf");
-    return method(javaClassStatic(), locales, options);
+            ->getStaticMethod<
+                WithLocalesAndOptions<jni::local_ref<JStringArray>>>(
+                "supportedLocalesOf");
+    return method(
+        javaClassStatic(),
+        locales,
+        options.keys(),
+        options.types(),
+        options.strings(),
+        options.numbers());
   }
 
-  jni::local_ref<JOptionsMap> resolvedOptions() {
+  jni::local_ref<JNativeOptions> resolvedOptions() {
     static const auto method =
-        javaClassStatic()->getMethod<jni::local_ref<JOptionsMap>()>(
-            "resolvedOptions");
+        javaClassStatic()->getMethod<jni::local_ref<JNativeOptions>()>(
+            "resolvedNativeOptions");
     return method(self());
   }
 
@@ -569,9 +942,20 @@ class JNumberFormat : public jni::JavaClass<JNumberFormat> {
     return method(self(), jsTimeValue);
   }
 
-  jni::local_ref<JPartsList> formatToParts(double jsTimeValue) {
+  jni::local_ref<jstring> formatBatch(
+      jni::alias_ref<jni::JArrayDouble> values,
+      jni::alias_ref<jni::JArrayInt> ends) {
     static const auto method =
-        javaClassStatic()->getMethod<jni::alias_ref<JPartsList>(double)>(
+        javaClassStatic()
+            ->getMethod<jni::local_ref<jstring>(
+                jni::alias_ref<jni::JArrayDouble>,
+                jni::alias_ref<jni::JArrayInt>)>("formatBatch");
+    return method(self(), values, ends);
+  }
+
+  jni::local_ref<JFormattedParts> formatToParts(double jsTimeValue) {
+    static const auto method =
+        javaClassStatic()->getMethod<jni::alias_ref<JFormattedParts>(double)>(
             "formatToParts");
     return method(self(), jsTimeValue);
   }
@@ -603,6 +987,17 @@ class NumberFormatAndroid : public NumberFormat {
     return stringFromJava(jNumberFormat_->format(number));
   }
 
+  std::vector<std::u16string> formatMany(
+      llvh::ArrayRef<double> numbers) noexcept {
+    return formatManyFromJava(
+        numbers,
+        [this](
+            jni::alias_ref<jni::JArrayDouble> values,
+            jni::alias_ref<jni::JArrayInt> ends) {
+          return jNumberFormat_->formatBatch(values, ends);
+        });
+  }
+
   std::vector<Part> formatToParts(double number) noexcept {
     return partsFromJava(jNumberFormat_->formatToParts(number));
   }
@@ -624,19 +1019,44 @@ vm::CallResult<std::vector<std::u16string>> NumberFormat::supportedLocalesOf(
     return localesFromJava(
         runtime,
         JNumberFormat::supportedLocalesOf(
-            localesToJava(locales), optionsToJava(options)));
+            localesToJava(locales), JavaOptions(options)));
   } catch (const std::exception &ex) {
     return runtime.raiseRangeError(ex.what());
   }
 }
 
+namespace {
+
+constexpr size_t kNumberFormatCacheCapacity = 32;
+
+/// Process-wide cache of configured Java number formats, keyed by the
+/// (locales, options) they were constructed with.  This lets
+/// Number.prototype.toLocaleString, which creates a new NumberFormat
+/// for every call, format at steady-state cost.
+JavaObjectCache<JNumberFormat> &numberFormatCache() {
+  // Intentionally leaked to avoid destruction order problems.
+  static auto *cache =
+      new JavaObjectCache<JNumberFormat>(kNumberFormatCacheCapacity);
+  return *cache;
+}
+
+} // namespace
+
 vm::ExecutionStatus NumberFormatAndroid::initialize(
     vm::Runtime &runtime,
     const std::vector<std::u16string> &locales,
     const Options &options) noexcept {
   try {
-    jNumberFormat_ = jni::make_global(
-        JNumberFormat::create(localesToJava(locales), optionsToJava(options)));
+    // A formatter resolved against a different default locale must not
+    // be reused, so fold it into the key, as for DateTimeFormat.
+    std::u16string key = cacheKey(locales, options);
+    key.append(stringFromJava(JIntl::getDefaultsKey()));
+    jNumberFormat_ = numberFormatCache().get(key);
+    if (!jNumberFormat_) {
+      jNumberFormat_ = jni::make_global(JNumberFormat::create(
+          localesToJava(locales), JavaOptions(options)));
+      numberFormatCache().put(key, jNumberFormat_);
+    }
   } catch (const std::exception &ex) {
     return runtime.raiseRangeError(ex.what());
   }
@@ -665,6 +1085,11 @@ std::u16string NumberFormat::format(double number) noexcept {
   return static_cast<NumberFormatAndroid *>(this)->format(number);
 }
 
+std::vector<std::u16string> NumberFormat::formatMany(
+    llvh::ArrayRef<double> numbers) noexcept {
+  return static_cast<NumberFormatAndroid *>(this)->formatMany(numbers);
+}
+
 std::vector<Part> NumberFormat::formatToParts(double number) noexcept {
   return static_cast<NumberFormatAndroid *>(this)->formatToParts(number);
 }
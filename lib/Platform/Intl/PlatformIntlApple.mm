@@ -1214,6 +1214,18 @@ double Collator::compare(
   return static_cast<CollatorApple *>(this)->compare(x, y);
 }
 
+bool Collator::supportsSortKeys() noexcept {
+  // Foundation doesn't expose collation keys.
+  return false;
+}
+
+bool Collator::getSortKeys(
+    const std::vector<std::u16string> &strings,
+    std::vector<uint8_t> &keys,
+    std::vector<uint32_t> &ends) noexcept {
+  return false;
+}
+
 namespace {
 // Implementation of
 // https://402.ecma-international.org/8.0/#datetimeformat-objects
@@ -2514,8 +2526,17 @@ std::u16string NumberFormat::format(double number) noexcept {
   return static_cast<NumberFormatApple *>(this)->format(number);
 }
 
-std::vector<std::unordered_map<std::u16string, std::u16string>>
-NumberFormat::formatToParts(double number) noexcept {
+std::vector<std::u16string> NumberFormat::formatMany(
+    llvh::ArrayRef<double> numbers) noexcept {
+  std::vector<std::u16string> ret;
+  ret.reserve(numbers.size());
+  for (double number : numbers) {
+    ret.push_back(format(number));
+  }
+  return ret;
+}
+
+std::vector<Part> NumberFormat::formatToParts(double number) noexcept {
   llvm_unreachable("formatToParts is unimplemented on Apple platforms");
 }
 
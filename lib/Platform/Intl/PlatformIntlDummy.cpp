@@ -74,6 +74,17 @@ double Collator::compare(
   return x.compare(y);
 }
 
+bool Collator::supportsSortKeys() noexcept {
+  return false;
+}
+
+bool Collator::getSortKeys(
+    const std::vector<std::u16string> &strings,
+    std::vector<uint8_t> &keys,
+    std::vector<uint32_t> &ends) noexcept {
+  return false;
+}
+
 namespace {
 struct DateTimeFormatDummy : DateTimeFormat {
   DateTimeFormatDummy(const char16_t *l) : locale(l) {}
@@ -111,14 +122,10 @@ std::u16string DateTimeFormat::format(double jsTimeValue) noexcept {
   return std::u16string(s.begin(), s.end());
 }
 
-std::vector<std::unordered_map<std::u16string, std::u16string>>
-DateTimeFormat::formatToParts(double jsTimeValue) noexcept {
-  std::unordered_map<std::u16string, std::u16string> part;
-  part[u"type"] = u"integer";
+std::vector<Part> DateTimeFormat::formatToParts(double jsTimeValue) noexcept {
   // This isn't right, but I didn't want to do more work for a stub.
   std::string s = std::to_string(jsTimeValue);
-  part[u"value"] = {s.begin(), s.end()};
-  return std::vector<std::unordered_map<std::u16string, std::u16string>>{part};
+  return std::vector<Part>{Part{u"integer", {s.begin(), s.end()}}};
 }
 
 namespace {
@@ -158,14 +165,20 @@ std::u16string NumberFormat::format(double number) noexcept {
   return std::u16string(s.begin(), s.end());
 }
 
-std::vector<std::unordered_map<std::u16string, std::u16string>>
-NumberFormat::formatToParts(double number) noexcept {
-  std::unordered_map<std::u16string, std::u16string> part;
-  part[u"type"] = u"integer";
+std::vector<std::u16string> NumberFormat::formatMany(
+    llvh::ArrayRef<double> numbers) noexcept {
+  std::vector<std::u16string> ret;
+  ret.reserve(numbers.size());
+  for (double number : numbers) {
+    ret.push_back(format(number));
+  }
+  return ret;
+}
+
+std::vector<Part> NumberFormat::formatToParts(double number) noexcept {
   // This isn't right, but I didn't want to do more work for a stub.
   std::string s = std::to_string(number);
-  part[u"value"] = {s.begin(), s.end()};
-  return std::vector<std::unordered_map<std::u16string, std::u16string>>{part};
+  return std::vector<Part>{Part{u"integer", {s.begin(), s.end()}}};
 }
 
 } // namespace platform_intl
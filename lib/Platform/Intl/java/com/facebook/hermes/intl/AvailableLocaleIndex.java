@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+import android.icu.util.ULocale;
+import android.os.Build;
+import androidx.annotation.RequiresApi;
+import java.util.Arrays;
+import java.util.HashSet;
+
+// An immutable index over a list of available locale tags, supporting O(1) membership tests.
+//
+// Enumerating the available locales and converting each of them to a language tag is expensive,
+// and the platform lists don't change while the process runs, so each index is built once, on
+// first use, and shared by all callers.
+public class AvailableLocaleIndex {
+
+  private final HashSet<String> mLocaleSet;
+  private final String[] mSortedLocales;
+
+  private AvailableLocaleIndex(String[] localeIds) {
+    mLocaleSet = new HashSet<>(Arrays.asList(localeIds));
+    mSortedLocales = mLocaleSet.toArray(new String[mLocaleSet.size()]);
+    Arrays.sort(mSortedLocales);
+  }
+
+  public boolean contains(String localeId) {
+    return mLocaleSet.contains(localeId);
+  }
+
+  // Returns a copy of the available locale tags, in sorted order.
+  public String[] toArray() {
+    return mSortedLocales.clone();
+  }
+
+  // Index over java.util.Locale.getAvailableLocales(), which backs the lookup locale matcher.
+  public static AvailableLocaleIndex getJavaLocaleIndex() {
+    return JavaLocaleIndexHolder.INSTANCE;
+  }
+
+  // Index over android.icu.util.ULocale.getAvailableLocales(), which backs the ICU formatters.
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  public static AvailableLocaleIndex getICULocaleIndex() {
+    return ICULocaleIndexHolder.INSTANCE;
+  }
+
+  // The holder classes are only initialized on first access, which gives lazy, thread-safe
+  // construction without locking on every lookup.
+  private static class JavaLocaleIndexHolder {
+    static final AvailableLocaleIndex INSTANCE = new AvailableLocaleIndex(getJavaLocaleIds());
+
+    private static String[] getJavaLocaleIds() {
+      if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+        // Before L, Locale.toLanguageTag isn't available. Need to figure out how to get a locale
+        // id from locale object ... Currently resoring to support only en
+        return new String[] {"en"};
+      }
+
+      java.util.Locale[] availableLocales = java.util.Locale.getAvailableLocales();
+      String[] availableLocaleIds = new String[availableLocales.length];
+      for (int i = 0; i < availableLocales.length; i++) {
+        availableLocaleIds[i] = availableLocales[i].toLanguageTag();
+      }
+      return availableLocaleIds;
+    }
+  }
+
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  private static class ICULocaleIndexHolder {
+    static final AvailableLocaleIndex INSTANCE = new AvailableLocaleIndex(getICULocaleIds());
+
+    private static String[] getICULocaleIds() {
+      ULocale[] availableLocales = ULocale.getAvailableLocales();
+      String[] availableLocaleIds = new String[availableLocales.length];
+      for (int i = 0; i < availableLocales.length; i++) {
+        availableLocaleIds[i] = availableLocales[i].toLanguageTag();
+      }
+      return availableLocaleIds;
+    }
+  }
+}
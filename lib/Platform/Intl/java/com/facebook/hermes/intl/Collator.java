@@ -15,6 +15,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class represents the Java part of the Android Intl.Collator implementation. The interaction
@@ -46,6 +47,10 @@ public class Collator {
   // As this is a static fact, our code assumes the above instead of dynamic validation as
   // prescribed in the pseudo code in ecma402
 
+  // The number of collators constructed so far. Native code caches collators, so this is how many
+  // times that cache missed.
+  private static final AtomicInteger sInstanceCount = new AtomicInteger();
+
   // Internal slots as defined by https://tc39.es/ecma402/#sec-intl.collator
   // Let internalSlotsList be « [[InitializedCollator]], [[Locale]], [[Usage]], [[Sensitivity]],
   // [[IgnorePunctuation]], [[Collation]], [[BoundCompare]] ».
@@ -79,7 +84,7 @@ public class Collator {
   private IPlatformCollator mPlatformCollatorObject;
 
   // https://tc39.es/ecma402/#sec-initializecollator
-  private void initializeCollator(List<String> locales, Map<String, Object> options)
+  private void initializeCollator(List<String> locales, CollatorOptions options)
       throws JSRangeErrorException {
 
     // 1.
@@ -88,15 +93,7 @@ public class Collator {
     // objects from the tag.
 
     // 4 & 5
-    Object usage =
-        OptionHelpers.GetOption(
-            options,
-            "usage",
-            OptionHelpers.OptionType.STRING,
-            Constants.COLLATOR_USAGE_POSSIBLE_VALUES,
-            Constants.SORT);
-    mResolvedUsage =
-        OptionHelpers.searchEnum(IPlatformCollator.Usage.class, JSObjects.getJavaString(usage));
+    mResolvedUsage = options.usage;
 
     // We don't have 6 & 7
     // Note: We don't know a way to map the 'usage' option to "LocaleData" parameter to be used
@@ -106,34 +103,11 @@ public class Collator {
 
     Object opt = JSObjects.newObject();
 
-    Object matcher =
-        OptionHelpers.GetOption(
-            options,
-            Constants.LOCALEMATCHER,
-            OptionHelpers.OptionType.STRING,
-            Constants.LOCALEMATCHER_POSSIBLE_VALUES,
-            Constants.LOCALEMATCHER_BESTFIT);
-    JSObjects.Put(opt, "localeMatcher", matcher);
-
-    Object numeric =
-        OptionHelpers.GetOption(
-            options,
-            "numeric",
-            OptionHelpers.OptionType.BOOLEAN,
-            JSObjects.Undefined(),
-            JSObjects.Undefined());
-    if (!JSObjects.isUndefined(numeric))
-      numeric = JSObjects.newString(String.valueOf(JSObjects.getJavaBoolean(numeric)));
-    JSObjects.Put(opt, "kn", numeric);
-
-    Object caseFirst =
-        OptionHelpers.GetOption(
-            options,
-            "caseFirst",
-            OptionHelpers.OptionType.STRING,
-            Constants.CASEFIRST_POSSIBLE_VALUES,
-            JSObjects.Undefined());
-    JSObjects.Put(opt, "kf", caseFirst);
+    JSObjects.Put(opt, "localeMatcher", options.localeMatcher);
+
+    if (options.hasNumeric) JSObjects.Put(opt, "kn", String.valueOf(options.numeric));
+
+    if (options.caseFirst != null) JSObjects.Put(opt, "kf", options.caseFirst);
 
     // https://tc39.es/ecma402/#sec-intl-collator-internal-slots
     List<String> relevantExtensionKeys = Arrays.asList("co", "kf", "kn");
@@ -178,17 +152,8 @@ public class Collator {
           Constants.COLLATION_EXTENSION_KEY_SHORT, currentResolvedCollationExtensions);
     }
 
-    Object sensitivity =
-        OptionHelpers.GetOption(
-            options,
-            Constants.COLLATION_OPTION_SENSITIVITY,
-            OptionHelpers.OptionType.STRING,
-            Constants.SENSITIVITY_POSSIBLE_VALUES,
-            JSObjects.Undefined());
-    if (!JSObjects.isUndefined(sensitivity)) {
-      mResolvedSensitivity =
-          OptionHelpers.searchEnum(
-              IPlatformCollator.Sensitivity.class, JSObjects.getJavaString(sensitivity));
+    if (options.sensitivity != null) {
+      mResolvedSensitivity = options.sensitivity;
     } else {
 
       if (mResolvedUsage == IPlatformCollator.Usage.SORT)
@@ -196,14 +161,7 @@ public class Collator {
       else mResolvedSensitivity = IPlatformCollator.Sensitivity.LOCALE;
     }
 
-    Object ignorePunctuation =
-        OptionHelpers.GetOption(
-            options,
-            Constants.COLLATION_OPTION_IGNOREPUNCTUATION,
-            OptionHelpers.OptionType.BOOLEAN,
-            JSObjects.Undefined(),
-            false);
-    mResolvedIgnorePunctuation = JSObjects.getJavaBoolean(ignorePunctuation);
+    mResolvedIgnorePunctuation = options.ignorePunctuation;
   }
 
   // options are usage:string, localeMatcher:string, numeric:boolean, caseFirst:string,
@@ -214,6 +172,11 @@ public class Collator {
   // Also see the implementer notes on DateTimeFormat#DateTimeFormat()
   @DoNotStrip
   public Collator(List<String> locales, Map<String, Object> options) throws JSRangeErrorException {
+    this(locales, IntlOptions.decode(new CollatorOptions(), options));
+  }
+
+  private Collator(List<String> locales, CollatorOptions options) throws JSRangeErrorException {
+    sInstanceCount.incrementAndGet();
 
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
       mPlatformCollatorObject = new PlatformCollatorICU();
@@ -231,6 +194,27 @@ public class Collator {
         .setIgnorePunctuation(mResolvedIgnorePunctuation);
   }
 
+  // Same as above, with the locales as an array and the options encoded as by NativeOptions, which
+  // is how native code passes them. The options are decoded straight into a CollatorOptions.
+  @DoNotStrip
+  public Collator(
+      String[] locales,
+      String[] optionKeys,
+      byte[] optionTypes,
+      String[] optionStrings,
+      double[] optionNumbers)
+      throws JSRangeErrorException {
+    this(
+        Arrays.asList(locales),
+        IntlOptions.decode(
+            new CollatorOptions(), optionKeys, optionTypes, optionStrings, optionNumbers));
+  }
+
+  // Returns the number of collators constructed so far, for tests.
+  public static int getInstanceCount() {
+    return sInstanceCount.get();
+  }
+
   // options are localeMatcher:string
   //
   // Implementer note: This method corresponds roughly to
@@ -241,14 +225,12 @@ public class Collator {
   @DoNotStrip
   public static List<String> supportedLocalesOf(List<String> locales, Map<String, Object> options)
       throws JSRangeErrorException {
-    String matcher =
-        JSObjects.getJavaString(
-            OptionHelpers.GetOption(
-                options,
-                Constants.LOCALEMATCHER,
-                OptionHelpers.OptionType.STRING,
-                Constants.LOCALEMATCHER_POSSIBLE_VALUES,
-                Constants.LOCALEMATCHER_BESTFIT));
+    return supportedLocalesOf(locales, IntlOptions.decode(new IntlOptions(), options));
+  }
+
+  private static List<String> supportedLocalesOf(List<String> locales, IntlOptions options)
+      throws JSRangeErrorException {
+    String matcher = options.localeMatcher;
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && matcher.equals("best fit")) {
       return Arrays.asList(
           LocaleMatcher.bestFitSupportedLocales(locales.toArray(new String[locales.size()])));
@@ -258,6 +240,23 @@ public class Collator {
     }
   }
 
+  // Same as above, with the arguments and result encoded as native code passes them.
+  @DoNotStrip
+  public static String[] supportedLocalesOf(
+      String[] locales,
+      String[] optionKeys,
+      byte[] optionTypes,
+      String[] optionStrings,
+      double[] optionNumbers)
+      throws JSRangeErrorException {
+    List<String> supportedLocales =
+        supportedLocalesOf(
+            Arrays.asList(locales),
+            IntlOptions.decode(
+                new IntlOptions(), optionKeys, optionTypes, optionStrings, optionNumbers));
+    return supportedLocales.toArray(new String[supportedLocales.size()]);
+  }
+
   // Implementer note: This method corresponds roughly to
   // https://tc39.es/ecma402/#sec-intl.collator.prototype.resolvedoptions
   @DoNotStrip
@@ -291,10 +290,45 @@ public class Collator {
     return finalResolvedOptions;
   }
 
+  // Same as resolvedOptions, encoded for native code.
+  @DoNotStrip
+  public NativeOptions resolvedNativeOptions() throws JSRangeErrorException {
+    return NativeOptions.fromMap(resolvedOptions());
+  }
+
   // Implementer note: This method corresponds roughly to
   // https://tc39.es/ecma402/#sec-collator-comparestrings
+  //
+  // Collator instances are cached and shared by every runtime in the process, and the underlying
+  // ICU collator is not thread safe, hence the synchronization.
   @DoNotStrip
-  public double compare(String source, String target) {
+  public synchronized double compare(String source, String target) {
     return mPlatformCollatorObject.compare(source, target);
   }
+
+  // Takes strings concatenated into text, with ends[i] the offset just past the i'th string.
+  // Returns the collation keys of all the strings packed back to back, and sets ends[i] to the
+  // offset just past the key of the i'th string. Comparing keys bytewise, as unsigned values,
+  // orders the strings the same way compare does. This lets native code sort a whole array with a
+  // single call into Java, and a constant number of JNI calls to marshal the strings and keys.
+  @DoNotStrip
+  public synchronized byte[] getSortKeys(String text, int[] ends) {
+    byte[][] keys = new byte[ends.length][];
+    int length = 0;
+    int start = 0;
+    for (int i = 0; i < ends.length; i++) {
+      keys[i] = mPlatformCollatorObject.getCollationKey(text.substring(start, ends[i]));
+      start = ends[i];
+      length += keys[i].length;
+    }
+
+    byte[] packed = new byte[length];
+    int offset = 0;
+    for (int i = 0; i < keys.length; i++) {
+      System.arraycopy(keys[i], 0, packed, offset, keys[i].length);
+      offset += keys[i].length;
+      ends[i] = offset;
+    }
+    return packed;
+  }
 }
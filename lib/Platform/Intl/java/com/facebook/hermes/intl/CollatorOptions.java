@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+// The options read by https://tc39.es/ecma402/#sec-initializecollator, see IntlOptions.
+class CollatorOptions extends IntlOptions {
+
+  IPlatformCollator.Usage usage = IPlatformCollator.Usage.SORT;
+
+  boolean hasNumeric = false;
+  boolean numeric;
+
+  // The value of the "kf" extension, or null if unset.
+  String caseFirst = null;
+
+  // Null if unset, as the default depends on usage.
+  IPlatformCollator.Sensitivity sensitivity = null;
+
+  boolean ignorePunctuation = false;
+
+  @Override
+  void set(String key, byte type, String string, double number) throws JSRangeErrorException {
+    switch (key) {
+      case Constants.COLLATION_OPTION_USAGE:
+        switch (getString(type, string)) {
+          case Constants.SORT:
+            usage = IPlatformCollator.Usage.SORT;
+            break;
+          case Constants.SEARCH:
+            usage = IPlatformCollator.Usage.SEARCH;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case Constants.COLLATION_OPTION_NUMERIC:
+        numeric = getBoolean(type, number);
+        hasNumeric = true;
+        break;
+      case Constants.COLLATION_OPTION_CASEFIRST:
+        switch (getString(type, string)) {
+          case Constants.CASEFIRST_UPPER:
+            caseFirst = Constants.CASEFIRST_UPPER;
+            break;
+          case Constants.CASEFIRST_LOWER:
+            caseFirst = Constants.CASEFIRST_LOWER;
+            break;
+          case Constants.CASEFIRST_FALSE:
+            caseFirst = Constants.CASEFIRST_FALSE;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case Constants.COLLATION_OPTION_SENSITIVITY:
+        switch (getString(type, string)) {
+          case Constants.SENSITIVITY_BASE:
+            sensitivity = IPlatformCollator.Sensitivity.BASE;
+            break;
+          case Constants.SENSITIVITY_ACCENT:
+            sensitivity = IPlatformCollator.Sensitivity.ACCENT;
+            break;
+          case Constants.SENSITIVITY_CASE:
+            sensitivity = IPlatformCollator.Sensitivity.CASE;
+            break;
+          case Constants.SENSITIVITY_VARIANT:
+            sensitivity = IPlatformCollator.Sensitivity.VARIANT;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case Constants.COLLATION_OPTION_IGNOREPUNCTUATION:
+        ignorePunctuation = getBoolean(type, number);
+        break;
+      default:
+        super.set(key, type, string, number);
+        break;
+    }
+  }
+}
@@ -10,11 +10,9 @@ package com.facebook.hermes.intl;
 import android.os.Build;
 import com.facebook.proguard.annotations.DoNotStrip;
 import java.text.AttributedCharacterIterator;
-import java.text.CharacterIterator;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -74,6 +72,7 @@ public class DateTimeFormat {
   IPlatformDateTimeFormatter mPlatformDateTimeFormatter;
 
   private ILocaleObject<?> mResolvedLocaleObject = null;
+  private LocaleDefaults mResolvedLocaleDefaults = null;
 
   // This is a hacky way to avoid the extensions that we add from being shown in "resolvedOptions"
   // ..
@@ -103,49 +102,14 @@ public class DateTimeFormat {
 
   private Object mTimeZone = null;
 
+  // Reused by format and formatInto, which are synchronized.
+  private final StringBuffer mFormatBuffer = new StringBuffer();
+
   private boolean isLocaleIdType(String token) {
     return IntlTextUtils.isUnicodeExtensionKeyTypeItem(token, 0, token.length() - 1);
   }
 
-  // https://tc39.es/ecma402/#sec-todatetimeoptions
-  private Object ToDateTimeOptions(Object options, String required, String defaults)
-      throws JSRangeErrorException {
-    if (!JSObjects.isObject(options)) {
-      throw new JSRangeErrorException("Invalid options object !");
-    }
-    boolean needDefaults = true;
-
-    if (required.equals("date") || required.equals("any")) {
-      for (String property : new String[] {"weekday", "year", "month", "day"}) {
-        if (!JSObjects.isUndefined(JSObjects.Get(options, property))) needDefaults = false;
-      }
-    }
-
-    if (required.equals("time") || required.equals("any")) {
-      for (String property : new String[] {"hour", "minute", "second"}) {
-        if (!JSObjects.isUndefined(JSObjects.Get(options, property))) needDefaults = false;
-      }
-    }
-
-    if (!JSObjects.isUndefined(JSObjects.Get(options, "dateStyle"))
-        || !JSObjects.isUndefined(JSObjects.Get(options, "timeStyle"))) needDefaults = false;
-
-    if (needDefaults && (defaults.equals("date") || defaults.equals("all"))) {
-      for (String property : new String[] {"year", "month", "day"}) {
-        JSObjects.Put(options, property, "numeric");
-      }
-    }
-
-    if (needDefaults && (defaults.equals("time") || defaults.equals("all"))) {
-      for (String property : new String[] {"hour", "minute", "second"}) {
-        JSObjects.Put(options, property, "numeric");
-      }
-    }
-
-    return options;
-  }
-
-  public String normalizeTimeZoneName(String timeZoneName) {
+  public static String normalizeTimeZoneName(String timeZoneName) {
     StringBuilder normalized = new StringBuilder(timeZoneName.length());
     int offset = 'a' - 'A';
     for (int idx = 0; idx < timeZoneName.length(); idx++) {
@@ -159,94 +123,81 @@ public class DateTimeFormat {
     return normalized.toString();
   }
 
-  public String normalizeTimeZone(String timeZone) throws JSRangeErrorException {
-    for (String id : TimeZone.getAvailableIDs()) {
-      if (normalizeTimeZoneName(id).equals(normalizeTimeZoneName(timeZone))) {
-        return id;
+  // Maps time zone names to the available IDs they resolve to. Each available ID, including the
+  // backward links such as "US/Pacific", is keyed by its ASCII-lowercased form, and also by
+  // itself so that correctly cased names resolve without allocating. When several IDs only differ
+  // by case, the first one in TimeZone.getAvailableIDs() order wins.
+  //
+  // The set of available IDs doesn't change while the process runs, so the map is built once, on
+  // first use.
+  private static class TimeZoneIndexHolder {
+    static final Map<String, String> TIME_ZONES = buildIndex();
+
+    private static Map<String, String> buildIndex() {
+      String[] ids = TimeZone.getAvailableIDs();
+      HashMap<String, String> timeZones = new HashMap<>(ids.length * 4);
+      for (String id : ids) {
+        String normalizedId = normalizeTimeZoneName(id);
+        if (!timeZones.containsKey(normalizedId)) timeZones.put(normalizedId, id);
       }
+      for (String id : ids) {
+        if (!timeZones.containsKey(id)) timeZones.put(id, timeZones.get(normalizeTimeZoneName(id)));
+      }
+      return Collections.unmodifiableMap(timeZones);
     }
+  }
+
+  public String normalizeTimeZone(String timeZone) throws JSRangeErrorException {
+    String id = TimeZoneIndexHolder.TIME_ZONES.get(timeZone);
+    if (id == null) id = TimeZoneIndexHolder.TIME_ZONES.get(normalizeTimeZoneName(timeZone));
+    if (id != null) return id;
+
     throw new JSRangeErrorException("Invalid timezone name!");
   }
 
   private Object DefaultTimeZone() throws JSRangeErrorException {
-    return mPlatformDateTimeFormatter.getDefaultTimeZone(mResolvedLocaleObject);
+    return mResolvedLocaleDefaults.getTimeZone(mPlatformDateTimeFormatter, mResolvedLocaleObject);
   }
 
   // https://tc39.es/ecma402/#sec-initializedatetimeformat
-  private void initializeDateTimeFormat(List<String> locales, Map<String, Object> inOptions)
+  private void initializeDateTimeFormat(List<String> locales, DateTimeFormatOptions options)
       throws JSRangeErrorException {
 
     List<String> relevantExtensionKeys = Arrays.asList("ca", "nu", "hc");
 
     // 2
-    Object options = ToDateTimeOptions(inOptions, "any", "date");
+    options.applyDefaults();
 
     // 3
     Object opt = JSObjects.newObject();
 
     // 4,5,
-    Object matcher =
-        OptionHelpers.GetOption(
-            options,
-            Constants.LOCALEMATCHER,
-            OptionHelpers.OptionType.STRING,
-            Constants.LOCALEMATCHER_POSSIBLE_VALUES,
-            Constants.LOCALEMATCHER_BESTFIT);
-    JSObjects.Put(opt, "localeMatcher", matcher);
+    JSObjects.Put(opt, "localeMatcher", options.localeMatcher);
 
     // 6 - 8
-    Object calendar =
-        OptionHelpers.GetOption(
-            options,
-            "calendar",
-            OptionHelpers.OptionType.STRING,
-            JSObjects.Undefined(),
-            JSObjects.Undefined());
-    if (!JSObjects.isUndefined(calendar)) {
-      if (!isLocaleIdType(JSObjects.getJavaString(calendar)))
+    if (options.calendar != null) {
+      if (!isLocaleIdType(options.calendar))
         throw new JSRangeErrorException("Invalid calendar option !");
+      JSObjects.Put(opt, "ca", options.calendar);
     }
-    JSObjects.Put(opt, "ca", calendar);
 
     // 9 - 11
-    Object numberingSystem =
-        OptionHelpers.GetOption(
-            options,
-            "numberingSystem",
-            OptionHelpers.OptionType.STRING,
-            JSObjects.Undefined(),
-            JSObjects.Undefined());
-    if (!JSObjects.isUndefined(numberingSystem)) {
-      if (!isLocaleIdType(JSObjects.getJavaString(numberingSystem)))
+    if (options.numberingSystem != null) {
+      if (!isLocaleIdType(options.numberingSystem))
         throw new JSRangeErrorException("Invalid numbering system !");
+      JSObjects.Put(opt, "nu", options.numberingSystem);
     }
-    JSObjects.Put(opt, "nu", numberingSystem);
 
     // 12 - 15
-    Object hour12 =
-        OptionHelpers.GetOption(
-            options,
-            "hour12",
-            OptionHelpers.OptionType.BOOLEAN,
-            JSObjects.Undefined(),
-            JSObjects.Undefined());
-    Object hourCycle =
-        OptionHelpers.GetOption(
-            options,
-            "hourCycle",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"h11", "h12", "h23", "h24"},
-            JSObjects.Undefined());
-
-    if (!JSObjects.isUndefined(hour12)) hourCycle = JSObjects.Null();
-
-    JSObjects.Put(opt, "hc", hourCycle);
+    if (options.hasHour12) JSObjects.Put(opt, "hc", JSObjects.Null());
+    else if (options.hourCycle != null) JSObjects.Put(opt, "hc", options.hourCycle);
 
     // 16 - 23
     HashMap<String, Object> r = LocaleResolver.resolveLocale(locales, opt, relevantExtensionKeys);
 
     mResolvedLocaleObject = (ILocaleObject<?>) JSObjects.getJavaMap(r).get("locale");
     mResolvedLocaleObjectForResolvedOptions = mResolvedLocaleObject.cloneObject();
+    mResolvedLocaleDefaults = LocaleDefaults.get(mResolvedLocaleObject);
 
     Object calendarResolved = JSObjects.Get(r, "ca");
     if (!JSObjects.isNull(calendarResolved)) {
@@ -254,7 +205,8 @@ public class DateTimeFormat {
       mCalendar = JSObjects.getJavaString(calendarResolved);
     } else {
       useDefaultCalendar = true;
-      mCalendar = mPlatformDateTimeFormatter.getDefaultCalendarName(mResolvedLocaleObject);
+      mCalendar =
+          mResolvedLocaleDefaults.getCalendar(mPlatformDateTimeFormatter, mResolvedLocaleObject);
     }
 
     Object numeringSystemResolved = JSObjects.Get(r, "nu");
@@ -264,141 +216,42 @@ public class DateTimeFormat {
     } else {
       useDefaultNumberSystem = true;
       mNumberingSystem =
-          mPlatformDateTimeFormatter.getDefaultNumberingSystem(mResolvedLocaleObject);
+          mResolvedLocaleDefaults.getNumberingSystem(
+              mPlatformDateTimeFormatter, mResolvedLocaleObject);
     }
 
     Object hourCycleResolved = JSObjects.Get(r, "hc");
 
     // 24 - 27
-    Object timeZone = JSObjects.Get(options, "timeZone");
-    if (JSObjects.isUndefined(timeZone)) {
-      timeZone = DefaultTimeZone();
+    if (options.timeZone == null) {
+      mTimeZone = DefaultTimeZone();
     } else {
-      timeZone = normalizeTimeZone(timeZone.toString());
+      mTimeZone = normalizeTimeZone(options.timeZone);
     }
-    mTimeZone = timeZone;
 
     // 28 - 34
-    Object formatMatcher =
-        OptionHelpers.GetOption(
-            options,
-            "formatMatcher",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"basic", "best fit"},
-            "best fit");
-    mFormatMatcher =
-        OptionHelpers.searchEnum(
-            IPlatformDateTimeFormatter.FormatMatcher.class, JSObjects.getJavaString(formatMatcher));
+    mFormatMatcher = options.formatMatcher;
 
     // 29, 35
-    Object weekDay =
-        OptionHelpers.GetOption(
-            options,
-            "weekday",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"long", "short", "narrow"},
-            JSObjects.Undefined());
-    mWeekDay = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.WeekDay.class, weekDay);
-
-    Object era =
-        OptionHelpers.GetOption(
-            options,
-            "era",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"long", "short", "narrow"},
-            JSObjects.Undefined());
-    mEra = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.Era.class, era);
-
-    Object year =
-        OptionHelpers.GetOption(
-            options,
-            "year",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"numeric", "2-digit"},
-            JSObjects.Undefined());
-    mYear = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.Year.class, year);
-
-    Object month =
-        OptionHelpers.GetOption(
-            options,
-            "month",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"numeric", "2-digit", "long", "short", "narrow"},
-            JSObjects.Undefined());
-    mMonth = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.Month.class, month);
-
-    Object day =
-        OptionHelpers.GetOption(
-            options,
-            "day",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"numeric", "2-digit"},
-            JSObjects.Undefined());
-    mDay = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.Day.class, day);
-
-    Object hour =
-        OptionHelpers.GetOption(
-            options,
-            "hour",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"numeric", "2-digit"},
-            JSObjects.Undefined());
-    mHour = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.Hour.class, hour);
-
-    Object minute =
-        OptionHelpers.GetOption(
-            options,
-            "minute",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"numeric", "2-digit"},
-            JSObjects.Undefined());
-    mMinute = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.Minute.class, minute);
-
-    Object second =
-        OptionHelpers.GetOption(
-            options,
-            "second",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"numeric", "2-digit"},
-            JSObjects.Undefined());
-    mSecond = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.Second.class, second);
-
-    Object timeZoneName =
-        OptionHelpers.GetOption(
-            options,
-            "timeZoneName",
-            OptionHelpers.OptionType.STRING,
-            new String[] {
-              "long", "longOffset", "longGeneric", "short", "shortOffset", "shortGeneric"
-            },
-            JSObjects.Undefined());
-    mTimeZoneName =
-        OptionHelpers.searchEnum(IPlatformDateTimeFormatter.TimeZoneName.class, timeZoneName);
-
-    Object dateStyle =
-        OptionHelpers.GetOption(
-            options,
-            "dateStyle",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"full", "long", "medium", "short"},
-            JSObjects.Undefined());
-    mDateStyle = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.DateStyle.class, dateStyle);
-
-    Object timeStyle =
-        OptionHelpers.GetOption(
-            options,
-            "timeStyle",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"full", "long", "medium", "short"},
-            JSObjects.Undefined());
-    mTimeStyle = OptionHelpers.searchEnum(IPlatformDateTimeFormatter.TimeStyle.class, timeStyle);
+    mWeekDay = options.weekday;
+    mEra = options.era;
+    mYear = options.year;
+    mMonth = options.month;
+    mDay = options.day;
+    mHour = options.hour;
+    mMinute = options.minute;
+    mSecond = options.second;
+    mTimeZoneName = options.timeZoneName;
+    mDateStyle = options.dateStyle;
+    mTimeStyle = options.timeStyle;
 
     // 36
-    if (JSObjects.isUndefined(hour) && JSObjects.isUndefined(timeStyle)) {
+    if (mHour == IPlatformDateTimeFormatter.Hour.UNDEFINED
+        && mTimeStyle == IPlatformDateTimeFormatter.TimeStyle.UNDEFINED) {
       mHourCycle = IPlatformDateTimeFormatter.HourCycle.UNDEFINED;
     } else {
       IPlatformDateTimeFormatter.HourCycle hcDefault =
-          mPlatformDateTimeFormatter.getDefaultHourCycle(mResolvedLocaleObject);
+          mResolvedLocaleDefaults.getHourCycle(mPlatformDateTimeFormatter, mResolvedLocaleObject);
       IPlatformDateTimeFormatter.HourCycle hc;
 
       if (JSObjects.isNull(hourCycleResolved)) {
@@ -408,8 +261,8 @@ public class DateTimeFormat {
             OptionHelpers.searchEnum(IPlatformDateTimeFormatter.HourCycle.class, hourCycleResolved);
       }
 
-      if (!JSObjects.isUndefined(hour12)) {
-        if (JSObjects.getJavaBoolean(hour12)) { // true
+      if (options.hasHour12) {
+        if (options.hour12) { // true
           if (hcDefault == IPlatformDateTimeFormatter.HourCycle.H11
               || hcDefault == IPlatformDateTimeFormatter.HourCycle.H23)
             hc = IPlatformDateTimeFormatter.HourCycle.H11;
@@ -424,13 +277,17 @@ public class DateTimeFormat {
       mHourCycle = hc;
     }
 
-    mHour12 = hour12;
+    mHour12 = options.hasHour12 ? JSObjects.newBoolean(options.hour12) : JSObjects.Undefined();
   }
 
   @DoNotStrip
   public DateTimeFormat(List<String> locales, Map<String, Object> options)
       throws JSRangeErrorException {
+    this(locales, IntlOptions.decode(new DateTimeFormatOptions(), options));
+  }
 
+  private DateTimeFormat(List<String> locales, DateTimeFormatOptions options)
+      throws JSRangeErrorException {
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N)
       mPlatformDateTimeFormatter = new PlatformDateTimeFormatterICU();
     else mPlatformDateTimeFormatter = new PlatformDateTimeFormatterAndroid();
@@ -458,6 +315,22 @@ public class DateTimeFormat {
         mHour12);
   }
 
+  // Same as above, with the locales as an array and the options encoded as by NativeOptions, which
+  // is how native code passes them.
+  @DoNotStrip
+  public DateTimeFormat(
+      String[] locales,
+      String[] optionKeys,
+      byte[] optionTypes,
+      String[] optionStrings,
+      double[] optionNumbers)
+      throws JSRangeErrorException {
+    this(
+        Arrays.asList(locales),
+        IntlOptions.decode(
+            new DateTimeFormatOptions(), optionKeys, optionTypes, optionStrings, optionNumbers));
+  }
+
   // options are localeMatcher:string
   //
   // Implementer note: This method corresponds roughly to
@@ -467,14 +340,12 @@ public class DateTimeFormat {
   @DoNotStrip
   public static List<String> supportedLocalesOf(List<String> locales, Map<String, Object> options)
       throws JSRangeErrorException {
-    String matcher =
-        JSObjects.getJavaString(
-            OptionHelpers.GetOption(
-                options,
-                Constants.LOCALEMATCHER,
-                OptionHelpers.OptionType.STRING,
-                Constants.LOCALEMATCHER_POSSIBLE_VALUES,
-                Constants.LOCALEMATCHER_BESTFIT));
+    return supportedLocalesOf(locales, IntlOptions.decode(new IntlOptions(), options));
+  }
+
+  private static List<String> supportedLocalesOf(List<String> locales, IntlOptions options)
+      throws JSRangeErrorException {
+    String matcher = options.localeMatcher;
     String[] localeArray = new String[locales.size()];
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && matcher.equals("best fit")) {
       return Arrays.asList(LocaleMatcher.bestFitSupportedLocales(locales.toArray(localeArray)));
@@ -483,6 +354,23 @@ public class DateTimeFormat {
     }
   }
 
+  // Same as above, with the arguments and result encoded as native code passes them.
+  @DoNotStrip
+  public static String[] supportedLocalesOf(
+      String[] locales,
+      String[] optionKeys,
+      byte[] optionTypes,
+      String[] optionStrings,
+      double[] optionNumbers)
+      throws JSRangeErrorException {
+    List<String> supportedLocales =
+        supportedLocalesOf(
+            Arrays.asList(locales),
+            IntlOptions.decode(
+                new IntlOptions(), optionKeys, optionTypes, optionStrings, optionNumbers));
+    return supportedLocales.toArray(new String[supportedLocales.size()]);
+  }
+
   // Implementer note: This method corresponds roughly to
   // https://tc39.es/ecma402/#sec-intl.datetimeformat.prototype.resolvedoptions
   //
@@ -551,6 +439,12 @@ public class DateTimeFormat {
     return finalResolvedOptions;
   }
 
+  // Same as resolvedOptions, encoded for native code.
+  @DoNotStrip
+  public NativeOptions resolvedNativeOptions() throws JSRangeErrorException {
+    return NativeOptions.fromMap(resolvedOptions());
+  }
+
   // Implementer note: This method corresponds roughly to
   // https://tc39.es/ecma402/#sec-formatdatetime
   //
@@ -559,39 +453,44 @@ public class DateTimeFormat {
   // NumberFormat JavaScript objects, but these objects are never
   // exposed; it should be possible to create and use java
   // NumberFormat objects only.
+  //
+  // DateTimeFormat instances are cached and shared by every runtime in the process, and the
+  // underlying ICU formatter is not thread safe, hence the synchronization.
   @DoNotStrip
-  public String format(double jsTimeValue) throws JSRangeErrorException {
-    return mPlatformDateTimeFormatter.format(jsTimeValue);
+  public synchronized String format(double jsTimeValue) throws JSRangeErrorException {
+    mFormatBuffer.setLength(0);
+    mPlatformDateTimeFormatter.formatTo(jsTimeValue, mFormatBuffer);
+    return mFormatBuffer.toString();
+  }
+
+  // Same as format, but copies the result into the given buffer instead of creating a String, and
+  // returns its length. When the buffer is too small, nothing is copied and the returned length
+  // exceeds the buffer length, so that the caller can retry with a large enough buffer. Native code
+  // keeps one buffer per formatter, which makes formatting in steady state allocation free.
+  @DoNotStrip
+  public synchronized int formatInto(double jsTimeValue, char[] buffer)
+      throws JSRangeErrorException {
+    mFormatBuffer.setLength(0);
+    mPlatformDateTimeFormatter.formatTo(jsTimeValue, mFormatBuffer);
+    int length = mFormatBuffer.length();
+    if (length <= buffer.length) mFormatBuffer.getChars(0, length, buffer, 0);
+    return length;
   }
 
   // Implementer note: This method corresponds roughly to
   // https://tc39.es/ecma402/#sec-formatdatetimetoparts
   @DoNotStrip
-  public List<Map<String, String>> formatToParts(double jsTimeValue) throws JSRangeErrorException {
-    ArrayList<Map<String, String>> ret = new ArrayList<>();
-    AttributedCharacterIterator iterator = mPlatformDateTimeFormatter.formatToParts(jsTimeValue);
-    StringBuilder sb = new StringBuilder();
-    for (char ch = iterator.first(); ch != CharacterIterator.DONE; ch = iterator.next()) {
-      sb.append(ch);
-      if (iterator.getIndex() + 1 == iterator.getRunLimit()) {
-        Iterator<AttributedCharacterIterator.Attribute> keyIterator =
-            iterator.getAttributes().keySet().iterator();
-        String key;
-        if (keyIterator.hasNext()) {
-          key = mPlatformDateTimeFormatter.fieldToString(keyIterator.next(), sb.toString());
-        } else {
-          key = "literal";
-        }
-        String value = sb.toString();
-        sb.setLength(0);
-
-        HashMap<String, String> part = new HashMap<>();
-        part.put("type", key);
-        part.put("value", value);
-        ret.add(part);
-      }
-    }
-
-    return ret;
+  public synchronized FormattedParts formatToParts(double jsTimeValue)
+      throws JSRangeErrorException {
+    return FormattedParts.fromRuns(
+        mPlatformDateTimeFormatter.formatToParts(jsTimeValue),
+        new FormattedParts.PartTypeResolver() {
+          @Override
+          public String getPartType(
+              AttributedCharacterIterator.Attribute attribute, String text, int start, int limit) {
+            return mPlatformDateTimeFormatter.fieldToString(
+                attribute, text.substring(start, limit));
+          }
+        });
   }
 }
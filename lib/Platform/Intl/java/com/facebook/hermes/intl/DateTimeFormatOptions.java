@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+// The options read by https://tc39.es/ecma402/#sec-initializedatetimeformat, see IntlOptions.
+class DateTimeFormatOptions extends IntlOptions {
+
+  // Null if unset.
+  String calendar = null;
+  String numberingSystem = null;
+
+  boolean hasHour12 = false;
+  boolean hour12;
+
+  // The value of the "hc" extension, or null if unset.
+  String hourCycle = null;
+
+  // Null if unset.
+  String timeZone = null;
+
+  IPlatformDateTimeFormatter.FormatMatcher formatMatcher =
+      IPlatformDateTimeFormatter.FormatMatcher.BESTFIT;
+
+  IPlatformDateTimeFormatter.WeekDay weekday = IPlatformDateTimeFormatter.WeekDay.UNDEFINED;
+  IPlatformDateTimeFormatter.Era era = IPlatformDateTimeFormatter.Era.UNDEFINED;
+  IPlatformDateTimeFormatter.Year year = IPlatformDateTimeFormatter.Year.UNDEFINED;
+  IPlatformDateTimeFormatter.Month month = IPlatformDateTimeFormatter.Month.UNDEFINED;
+  IPlatformDateTimeFormatter.Day day = IPlatformDateTimeFormatter.Day.UNDEFINED;
+  IPlatformDateTimeFormatter.Hour hour = IPlatformDateTimeFormatter.Hour.UNDEFINED;
+  IPlatformDateTimeFormatter.Minute minute = IPlatformDateTimeFormatter.Minute.UNDEFINED;
+  IPlatformDateTimeFormatter.Second second = IPlatformDateTimeFormatter.Second.UNDEFINED;
+  IPlatformDateTimeFormatter.TimeZoneName timeZoneName =
+      IPlatformDateTimeFormatter.TimeZoneName.UNDEFINED;
+
+  IPlatformDateTimeFormatter.DateStyle dateStyle = IPlatformDateTimeFormatter.DateStyle.UNDEFINED;
+  IPlatformDateTimeFormatter.TimeStyle timeStyle = IPlatformDateTimeFormatter.TimeStyle.UNDEFINED;
+
+  // https://tc39.es/ecma402/#sec-todatetimeoptions, with required "any" and defaults "date", which
+  // is how DateTimeFormat calls it.
+  void applyDefaults() {
+    if (weekday != IPlatformDateTimeFormatter.WeekDay.UNDEFINED
+        || year != IPlatformDateTimeFormatter.Year.UNDEFINED
+        || month != IPlatformDateTimeFormatter.Month.UNDEFINED
+        || day != IPlatformDateTimeFormatter.Day.UNDEFINED
+        || hour != IPlatformDateTimeFormatter.Hour.UNDEFINED
+        || minute != IPlatformDateTimeFormatter.Minute.UNDEFINED
+        || second != IPlatformDateTimeFormatter.Second.UNDEFINED
+        || dateStyle != IPlatformDateTimeFormatter.DateStyle.UNDEFINED
+        || timeStyle != IPlatformDateTimeFormatter.TimeStyle.UNDEFINED) return;
+
+    year = IPlatformDateTimeFormatter.Year.NUMERIC;
+    month = IPlatformDateTimeFormatter.Month.NUMERIC;
+    day = IPlatformDateTimeFormatter.Day.NUMERIC;
+  }
+
+  @Override
+  void set(String key, byte type, String string, double number) throws JSRangeErrorException {
+    switch (key) {
+      case "calendar":
+        calendar = getString(type, string);
+        break;
+      case "numberingSystem":
+        numberingSystem = getString(type, string);
+        break;
+      case "hour12":
+        hour12 = getBoolean(type, number);
+        hasHour12 = true;
+        break;
+      case "hourCycle":
+        switch (getString(type, string)) {
+          case "h11":
+            hourCycle = "h11";
+            break;
+          case "h12":
+            hourCycle = "h12";
+            break;
+          case "h23":
+            hourCycle = "h23";
+            break;
+          case "h24":
+            hourCycle = "h24";
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "timeZone":
+        timeZone = getString(type, string);
+        break;
+      case "formatMatcher":
+        switch (getString(type, string)) {
+          case "basic":
+            formatMatcher = IPlatformDateTimeFormatter.FormatMatcher.BASIC;
+            break;
+          case "best fit":
+            formatMatcher = IPlatformDateTimeFormatter.FormatMatcher.BESTFIT;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "weekday":
+        switch (getString(type, string)) {
+          case "long":
+            weekday = IPlatformDateTimeFormatter.WeekDay.LONG;
+            break;
+          case "short":
+            weekday = IPlatformDateTimeFormatter.WeekDay.SHORT;
+            break;
+          case "narrow":
+            weekday = IPlatformDateTimeFormatter.WeekDay.NARROW;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "era":
+        switch (getString(type, string)) {
+          case "long":
+            era = IPlatformDateTimeFormatter.Era.LONG;
+            break;
+          case "short":
+            era = IPlatformDateTimeFormatter.Era.SHORT;
+            break;
+          case "narrow":
+            era = IPlatformDateTimeFormatter.Era.NARROW;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "year":
+        switch (getString(type, string)) {
+          case "numeric":
+            year = IPlatformDateTimeFormatter.Year.NUMERIC;
+            break;
+          case "2-digit":
+            year = IPlatformDateTimeFormatter.Year.DIGIT2;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "month":
+        switch (getString(type, string)) {
+          case "numeric":
+            month = IPlatformDateTimeFormatter.Month.NUMERIC;
+            break;
+          case "2-digit":
+            month = IPlatformDateTimeFormatter.Month.DIGIT2;
+            break;
+          case "long":
+            month = IPlatformDateTimeFormatter.Month.LONG;
+            break;
+          case "short":
+            month = IPlatformDateTimeFormatter.Month.SHORT;
+            break;
+          case "narrow":
+            month = IPlatformDateTimeFormatter.Month.NARROW;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "day":
+        switch (getString(type, string)) {
+          case "numeric":
+            day = IPlatformDateTimeFormatter.Day.NUMERIC;
+            break;
+          case "2-digit":
+            day = IPlatformDateTimeFormatter.Day.DIGIT2;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "hour":
+        switch (getString(type, string)) {
+          case "numeric":
+            hour = IPlatformDateTimeFormatter.Hour.NUMERIC;
+            break;
+          case "2-digit":
+            hour = IPlatformDateTimeFormatter.Hour.DIGIT2;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "minute":
+        switch (getString(type, string)) {
+          case "numeric":
+            minute = IPlatformDateTimeFormatter.Minute.NUMERIC;
+            break;
+          case "2-digit":
+            minute = IPlatformDateTimeFormatter.Minute.DIGIT2;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "second":
+        switch (getString(type, string)) {
+          case "numeric":
+            second = IPlatformDateTimeFormatter.Second.NUMERIC;
+            break;
+          case "2-digit":
+            second = IPlatformDateTimeFormatter.Second.DIGIT2;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "timeZoneName":
+        switch (getString(type, string)) {
+          case "long":
+            timeZoneName = IPlatformDateTimeFormatter.TimeZoneName.LONG;
+            break;
+          case "longOffset":
+            timeZoneName = IPlatformDateTimeFormatter.TimeZoneName.LONGOFFSET;
+            break;
+          case "longGeneric":
+            timeZoneName = IPlatformDateTimeFormatter.TimeZoneName.LONGGENERIC;
+            break;
+          case "short":
+            timeZoneName = IPlatformDateTimeFormatter.TimeZoneName.SHORT;
+            break;
+          case "shortOffset":
+            timeZoneName = IPlatformDateTimeFormatter.TimeZoneName.SHORTOFFSET;
+            break;
+          case "shortGeneric":
+            timeZoneName = IPlatformDateTimeFormatter.TimeZoneName.SHORTGENERIC;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "dateStyle":
+        switch (getString(type, string)) {
+          case "full":
+            dateStyle = IPlatformDateTimeFormatter.DateStyle.FULL;
+            break;
+          case "long":
+            dateStyle = IPlatformDateTimeFormatter.DateStyle.LONG;
+            break;
+          case "medium":
+            dateStyle = IPlatformDateTimeFormatter.DateStyle.MEDIUM;
+            break;
+          case "short":
+            dateStyle = IPlatformDateTimeFormatter.DateStyle.SHORT;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "timeStyle":
+        switch (getString(type, string)) {
+          case "full":
+            timeStyle = IPlatformDateTimeFormatter.TimeStyle.FULL;
+            break;
+          case "long":
+            timeStyle = IPlatformDateTimeFormatter.TimeStyle.LONG;
+            break;
+          case "medium":
+            timeStyle = IPlatformDateTimeFormatter.TimeStyle.MEDIUM;
+            break;
+          case "short":
+            timeStyle = IPlatformDateTimeFormatter.TimeStyle.SHORT;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      default:
+        super.set(key, type, string, number);
+        break;
+    }
+  }
+}
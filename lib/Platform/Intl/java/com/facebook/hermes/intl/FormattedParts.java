@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+import com.facebook.proguard.annotations.DoNotStrip;
+import java.text.AttributedCharacterIterator;
+import java.text.CharacterIterator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+
+// The result of formatToParts, packed for native code: the formatted string, the offset just past
+// each part, and the type of each part as a code into getTypeNames().
+//
+// Returning a Map per part costs a HashMap and two Strings per part on the Java side, and as many
+// lookups and copies on the native side. Packed, a result is always four objects, whatever the
+// number of parts, and native code reads it with four JNI calls.
+@DoNotStrip
+public class FormattedParts {
+
+  static final String LITERAL = "literal";
+
+  // The part types reported by the platform formatters. Native code fetches this table once, so
+  // codes only need to be stable within a process.
+  private static final String[] TYPE_NAMES = {
+    LITERAL,
+    // DateTimeFormat
+    "era",
+    "year",
+    "yearName",
+    "relatedYear",
+    "month",
+    "day",
+    "weekday",
+    "hour",
+    "minute",
+    "second",
+    "timeZoneName",
+    "dayPeriod",
+    // NumberFormat
+    "integer",
+    "group",
+    "decimal",
+    "fraction",
+    "plusSign",
+    "minusSign",
+    "percentSign",
+    "permilleSign",
+    "currency",
+    "unit",
+    "nan",
+    "infinity",
+    "exponentSeparator",
+    "exponentMinusSign",
+    "exponentInteger",
+    "compact",
+  };
+
+  private static final HashMap<String, Byte> TYPE_CODES = new HashMap<>();
+
+  static {
+    for (int i = 0; i < TYPE_NAMES.length; i++) TYPE_CODES.put(TYPE_NAMES[i], (byte) i);
+  }
+
+  // Resolves the part type of a run of formatted text which has at least one attribute.
+  interface PartTypeResolver {
+    String getPartType(
+        AttributedCharacterIterator.Attribute attribute, String text, int start, int limit);
+  }
+
+  private final String mValue;
+  private int[] mEnds = new int[8];
+  private byte[] mTypes = new byte[8];
+  private int mCount = 0;
+
+  private FormattedParts(String value) {
+    mValue = value;
+  }
+
+  // Splits the text of iterator into parts, one per run of characters with identical attributes,
+  // typed by resolver after the first attribute of the run. Runs without attributes are literals.
+  //
+  // Each run is visited once, through getRunLimit, rather than checking every character for the
+  // end of its run, which queried the attributes (allocating a Map each time) per character.
+  static FormattedParts fromRuns(
+      AttributedCharacterIterator iterator, PartTypeResolver resolver) {
+    int begin = iterator.getBeginIndex();
+    int end = iterator.getEndIndex();
+    StringBuilder text = new StringBuilder(end - begin);
+    for (char ch = iterator.first(); ch != CharacterIterator.DONE; ch = iterator.next()) {
+      text.append(ch);
+    }
+
+    FormattedParts parts = new FormattedParts(text.toString());
+    for (int start = begin; start < end; ) {
+      iterator.setIndex(start);
+      int limit = iterator.getRunLimit();
+      Iterator<AttributedCharacterIterator.Attribute> keyIterator =
+          iterator.getAttributes().keySet().iterator();
+      String type =
+          keyIterator.hasNext()
+              ? resolver.getPartType(
+                  keyIterator.next(), parts.mValue, start - begin, limit - begin)
+              : LITERAL;
+      parts.add(limit - begin, type);
+      start = limit;
+    }
+    return parts;
+  }
+
+  // Appends a part ending at offset end of the value. Types missing from TYPE_NAMES are reported as
+  // literals, as the platform formatters do for fields they don't recognize.
+  private void add(int end, String type) {
+    if (mCount == mEnds.length) {
+      mEnds = Arrays.copyOf(mEnds, mCount * 2);
+      mTypes = Arrays.copyOf(mTypes, mCount * 2);
+    }
+
+    Byte code = TYPE_CODES.get(type);
+    mEnds[mCount] = end;
+    mTypes[mCount] = code != null ? code : 0;
+    mCount++;
+  }
+
+  @DoNotStrip
+  public static String[] getTypeNames() {
+    return TYPE_NAMES.clone();
+  }
+
+  @DoNotStrip
+  public String getValue() {
+    return mValue;
+  }
+
+  @DoNotStrip
+  public int[] getEnds() {
+    return Arrays.copyOf(mEnds, mCount);
+  }
+
+  @DoNotStrip
+  public byte[] getTypes() {
+    return Arrays.copyOf(mTypes, mCount);
+  }
+}
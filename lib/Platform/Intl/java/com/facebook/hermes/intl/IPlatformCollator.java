@@ -86,5 +86,9 @@ public interface IPlatformCollator {
 
   int compare(String source, String target);
 
+  // Returns the collation key of source as bytes. Comparing the keys of two strings bytewise, as
+  // unsigned values, orders them the same way compare does.
+  byte[] getCollationKey(String source);
+
   String[] getAvailableLocales();
 }
@@ -483,6 +483,10 @@ public interface IPlatformDateTimeFormatter {
 
   String format(double n) throws JSRangeErrorException;
 
+  // Appends the formatted value to the given buffer, reusing per-formatter scratch objects, so that
+  // formatting in a loop doesn't allocate.
+  void formatTo(double n, StringBuffer result) throws JSRangeErrorException;
+
   String fieldToString(AttributedCharacterIterator.Attribute attribute, String fieldValue);
 
   AttributedCharacterIterator formatToParts(double n) throws JSRangeErrorException;
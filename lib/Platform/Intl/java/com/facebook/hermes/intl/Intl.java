@@ -10,7 +10,9 @@ package com.facebook.hermes.intl;
 import android.os.Build;
 import com.facebook.proguard.annotations.DoNotStrip;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @DoNotStrip
@@ -29,7 +31,9 @@ public class Intl {
     // JSLib/Intl.cpp
 
     // 2. Let seen be a new empty List.
-    ArrayList<String> seen = new ArrayList<>();
+    // A LinkedHashSet keeps the insertion order required by the spec, with constant time
+    // membership tests.
+    LinkedHashSet<String> seen = new LinkedHashSet<>();
 
     // 3. If Type(locales) is String or Type(locales) is Object and locales has an
     // [[InitializedLocale]] internal slot, then
@@ -59,12 +63,21 @@ public class Intl {
       String canonicalizedTag = LocaleIdentifier.canonicalizeLocaleId(locale);
 
       // 7.c.vii
-      if (!canonicalizedTag.isEmpty() && !seen.contains(canonicalizedTag)) {
+      if (!canonicalizedTag.isEmpty()) {
         seen.add(canonicalizedTag);
       }
     }
 
-    return seen;
+    return new ArrayList<>(seen);
+  }
+
+  // Returns a key which changes whenever the default locale or time zone changes. Native code
+  // makes it part of the keys of its Collator, DateTimeFormat and NumberFormat caches, since the
+  // defaults are baked into those objects when the locale list or the timeZone option are left
+  // unspecified.
+  @DoNotStrip
+  public static String getDefaultsKey() {
+    return LocaleDefaults.getEnvironmentKey();
   }
 
   // Implementer note: This method corresponds roughly to
@@ -78,20 +91,30 @@ public class Intl {
     return canonicalizeLocaleList(locales);
   }
 
+  // Same as above, with the locale lists as arrays, which is how native code passes them.
+  @DoNotStrip
+  public static String[] getCanonicalLocales(String[] locales) throws JSRangeErrorException {
+    List<String> canonicalLocales = canonicalizeLocaleList(Arrays.asList(locales));
+    return canonicalLocales.toArray(new String[canonicalLocales.size()]);
+  }
+
   // Implementer note: This method corresponds roughly to
   // https://tc39.es/ecma402/#sup-string.prototype.tolocalelowercase
   @DoNotStrip
   public static String toLocaleLowerCase(List<String> locales, String str)
       throws JSRangeErrorException {
-    String[] localesArray = new String[locales.size()];
+    return toLocaleLowerCase(locales.toArray(new String[locales.size()]), str);
+  }
+
+  @DoNotStrip
+  public static String toLocaleLowerCase(String[] locales, String str)
+      throws JSRangeErrorException {
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-      LocaleMatcher.LocaleMatchResult localeMatchResult =
-          LocaleMatcher.bestFitMatch(locales.toArray(localesArray));
+      LocaleMatcher.LocaleMatchResult localeMatchResult = LocaleMatcher.bestFitMatch(locales);
       return android.icu.lang.UCharacter.toLowerCase(
           (android.icu.util.ULocale) localeMatchResult.matchedLocale.getLocale(), str);
     } else {
-      LocaleMatcher.LocaleMatchResult localeMatchResult =
-          LocaleMatcher.lookupMatch(locales.toArray(localesArray));
+      LocaleMatcher.LocaleMatchResult localeMatchResult = LocaleMatcher.lookupMatch(locales);
       return str.toLowerCase((java.util.Locale) localeMatchResult.matchedLocale.getLocale());
     }
   }
@@ -101,15 +124,18 @@ public class Intl {
   @DoNotStrip
   public static String toLocaleUpperCase(List<String> locales, String str)
       throws JSRangeErrorException {
-    String[] localesArray = new String[locales.size()];
+    return toLocaleUpperCase(locales.toArray(new String[locales.size()]), str);
+  }
+
+  @DoNotStrip
+  public static String toLocaleUpperCase(String[] locales, String str)
+      throws JSRangeErrorException {
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-      LocaleMatcher.LocaleMatchResult localeMatchResult =
-          LocaleMatcher.bestFitMatch(locales.toArray(localesArray));
+      LocaleMatcher.LocaleMatchResult localeMatchResult = LocaleMatcher.bestFitMatch(locales);
       return android.icu.lang.UCharacter.toUpperCase(
           (android.icu.util.ULocale) localeMatchResult.matchedLocale.getLocale(), str);
     } else {
-      LocaleMatcher.LocaleMatchResult localeMatchResult =
-          LocaleMatcher.lookupMatch(locales.toArray(localesArray));
+      LocaleMatcher.LocaleMatchResult localeMatchResult = LocaleMatcher.lookupMatch(locales);
       return str.toUpperCase((java.util.Locale) localeMatchResult.matchedLocale.getLocale());
     }
   }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+import java.util.Map;
+
+// The options of an Intl constructor, decoded into typed fields.
+//
+// Each constructor has a subclass which declares a field per option it reads, and decodes an option
+// by switching on its name, then validates string options by switching on their value. Both
+// switches are compiled into hash lookups, so options are parsed straight from the arrays native
+// code passes (see NativeOptions) without building a map, boxing values, or comparing each value
+// against a list. Options not in the schema are ignored, as the constructors never read them.
+//
+// This class holds the only option shared by every constructor, and serves as the schema of
+// supportedLocalesOf.
+class IntlOptions {
+
+  // Not a NativeOptions type: the value is some other Java object, passed to one of the Map based
+  // constructors.
+  private static final byte TYPE_OTHER = -1;
+
+  String localeMatcher = Constants.LOCALEMATCHER_BESTFIT;
+
+  // Decodes the option named key, whose value is string if type is NativeOptions.TYPE_STRING and
+  // number otherwise. Subclasses override this for their own options, and defer to it for the
+  // rest.
+  void set(String key, byte type, String string, double number) throws JSRangeErrorException {
+    if (key.equals(Constants.LOCALEMATCHER)) {
+      switch (getString(type, string)) {
+        case Constants.LOCALEMATCHER_LOOKUP:
+          localeMatcher = Constants.LOCALEMATCHER_LOOKUP;
+          break;
+        case Constants.LOCALEMATCHER_BESTFIT:
+          localeMatcher = Constants.LOCALEMATCHER_BESTFIT;
+          break;
+        default:
+          throw invalidValue();
+      }
+    }
+  }
+
+  // Decodes options encoded as by NativeOptions, which is how native code passes them, into
+  // options, and returns it.
+  static <T extends IntlOptions> T decode(
+      T options, String[] keys, byte[] types, String[] strings, double[] numbers)
+      throws JSRangeErrorException {
+    for (int i = 0; i < keys.length; i++) options.set(keys[i], types[i], strings[i], numbers[i]);
+    return options;
+  }
+
+  // Decodes the map taken by the public constructors into options, and returns it. A null value
+  // reads as an empty string.
+  static <T extends IntlOptions> T decode(T options, Map<String, Object> map)
+      throws JSRangeErrorException {
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      String key = entry.getKey();
+      Object value = entry.getValue();
+      if (value == null) value = "";
+      if (value instanceof String) {
+        options.set(key, NativeOptions.TYPE_STRING, (String) value, 0);
+      } else if (value instanceof Boolean) {
+        options.set(key, NativeOptions.TYPE_BOOLEAN, null, (Boolean) value ? 1 : 0);
+      } else if (value instanceof Double || value instanceof Integer) {
+        options.set(key, NativeOptions.TYPE_NUMBER, null, ((Number) value).doubleValue());
+      } else {
+        options.set(key, TYPE_OTHER, null, 0);
+      }
+    }
+    return options;
+  }
+
+  static String getString(byte type, String string) throws JSRangeErrorException {
+    if (type != NativeOptions.TYPE_STRING)
+      throw new JSRangeErrorException("String option expected but not found");
+    return string;
+  }
+
+  static boolean getBoolean(byte type, double number) throws JSRangeErrorException {
+    if (type != NativeOptions.TYPE_BOOLEAN)
+      throw new JSRangeErrorException("Boolean option expected but not found");
+    return number != 0;
+  }
+
+  // Number options are only checked when they're read, which depends on other options, see
+  // getNumberOption. Values of any other type read as NaN, which it rejects.
+  static double getNumber(byte type, double number) {
+    return type == NativeOptions.TYPE_NUMBER ? number : Double.NaN;
+  }
+
+  // https://tc39.es/ecma402/#sec-defaultnumberoption, for an option which is present.
+  static int getNumberOption(double value, int minimum, int maximum) throws JSRangeErrorException {
+    if (Double.isNaN(value) || value < minimum || value > maximum)
+      throw new JSRangeErrorException("Invalid number value !");
+    return (int) Math.floor(value);
+  }
+
+  static JSRangeErrorException invalidValue() {
+    return new JSRangeErrorException("String option expected but not found");
+  }
+}
@@ -12,13 +12,14 @@ import java.util.Map;
 
 public class JSObjects {
 
-  // This is a simulation Javascript like object semantics required for option parsing in Intl
+  // This is a simulation Javascript like object semantics required for locale resolution in Intl
   // Services.
   // The pseudo codes is the Intl spec are described assuming Javascript object semantics, with
   // subtle meaning for undefine, null, empty string etc. which can be very tricky with Java object
   // semantics.
-  // We use these object only for option parsing with the help of OptionHelpers class. At the end of
-  // the option parsing, all the options are resolved to strongly typed Java datatypes.
+  // Options passed to the constructors are decoded into typed records instead, see IntlOptions.
+  // These objects are only used for the extension keys passed to LocaleResolver and the values it
+  // resolves them to.
 
   private static class UndefinedObject extends Object {}
 
@@ -61,11 +62,11 @@ public class JSObjects {
   }
 
   public static Object newBoolean() {
-    return new Boolean(false);
+    return Boolean.FALSE;
   }
 
   public static Object newBoolean(boolean b) {
-    return new Boolean(b);
+    return Boolean.valueOf(b);
   }
 
   public static Object newBoolean(String str) {
@@ -81,7 +82,7 @@ public class JSObjects {
   }
 
   public static Object newNumber(double d) {
-    return new Double(d);
+    return Double.valueOf(d);
   }
 
   public static double getJavaDouble(Object object) {
@@ -110,13 +111,11 @@ public class JSObjects {
 
   public static Object Get(Object options, String property) {
     HashMap<String, Object> javaObject = (HashMap<String, Object>) options;
-    if (javaObject.containsKey(property)) {
-      Object value = javaObject.get(property);
-      if (value == null) return JSObjects.Null();
-      else return value;
-    } else {
-      return Undefined();
-    }
+    Object value = javaObject.get(property);
+    if (value != null) return value;
+    // A null value is either a missing property or an explicit null; only the latter needs the
+    // second lookup.
+    return javaObject.containsKey(property) ? JSObjects.Null() : Undefined();
   }
 
   public static void Put(Object options, String property, Object value) {
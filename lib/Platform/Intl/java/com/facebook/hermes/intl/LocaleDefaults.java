@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Caches the locale dependent defaults consulted while constructing DateTimeFormat and
+// NumberFormat objects, keyed by the canonical tag of the resolved locale.
+//
+// Each of these defaults is derived by instantiating a throwaway platform formatter or calendar
+// (e.g. the default hour cycle is found by scanning the pattern of a FULL time formatter), which
+// dominates the construction cost of a formatter. The values are computed on first use and then
+// shared by all formatters resolving to the same locale.
+//
+// The default time zone, and the defaults of locales derived from the default locale, change
+// along with the device settings, so the whole cache is dropped when the default locale or time
+// zone changes.
+public class LocaleDefaults {
+
+  // Tags come from user code, so the cache stops accepting new entries once it is full.
+  private static final int CACHE_MAX_SIZE = 64;
+  private static final ConcurrentHashMap<String, LocaleDefaults> sCache =
+      new ConcurrentHashMap<>();
+  private static volatile String sEnvironmentKey = "";
+
+  private volatile String mCalendar;
+  private volatile String mNumberingSystem;
+  private volatile IPlatformDateTimeFormatter.HourCycle mHourCycle;
+  private volatile String mTimeZone;
+
+  private LocaleDefaults() {}
+
+  // Returns a key which changes whenever the default locale or time zone changes.
+  public static String getEnvironmentKey() {
+    return Locale.getDefault().toLanguageTag() + "|" + TimeZone.getDefault().getID();
+  }
+
+  public static LocaleDefaults get(ILocaleObject<?> localeObject) throws JSRangeErrorException {
+    String environmentKey = getEnvironmentKey();
+    if (!environmentKey.equals(sEnvironmentKey)) {
+      sCache.clear();
+      sEnvironmentKey = environmentKey;
+    }
+
+    String tag = localeObject.toCanonicalTag();
+    LocaleDefaults defaults = sCache.get(tag);
+    if (defaults == null) {
+      defaults = new LocaleDefaults();
+      if (sCache.size() < CACHE_MAX_SIZE) {
+        LocaleDefaults existing = sCache.putIfAbsent(tag, defaults);
+        if (existing != null) defaults = existing;
+      }
+    }
+    return defaults;
+  }
+
+  // Concurrent callers may both compute a missing value; they'll compute the same one, so the
+  // race is benign.
+  public String getCalendar(IPlatformDateTimeFormatter formatter, ILocaleObject<?> localeObject)
+      throws JSRangeErrorException {
+    String calendar = mCalendar;
+    if (calendar == null) {
+      calendar = formatter.getDefaultCalendarName(localeObject);
+      mCalendar = calendar;
+    }
+    return calendar;
+  }
+
+  public IPlatformDateTimeFormatter.HourCycle getHourCycle(
+      IPlatformDateTimeFormatter formatter, ILocaleObject<?> localeObject)
+      throws JSRangeErrorException {
+    IPlatformDateTimeFormatter.HourCycle hourCycle = mHourCycle;
+    if (hourCycle == null) {
+      hourCycle = formatter.getDefaultHourCycle(localeObject);
+      mHourCycle = hourCycle;
+    }
+    return hourCycle;
+  }
+
+  public String getTimeZone(IPlatformDateTimeFormatter formatter, ILocaleObject<?> localeObject)
+      throws JSRangeErrorException {
+    String timeZone = mTimeZone;
+    if (timeZone == null) {
+      timeZone = formatter.getDefaultTimeZone(localeObject);
+      mTimeZone = timeZone;
+    }
+    return timeZone;
+  }
+
+  // DateTimeFormat and NumberFormat pick their ICU or Android implementation based on the same API
+  // level check, and both derive the default numbering system the same way, so they can share it.
+  public String getNumberingSystem(
+      IPlatformDateTimeFormatter formatter, ILocaleObject<?> localeObject)
+      throws JSRangeErrorException {
+    String numberingSystem = mNumberingSystem;
+    if (numberingSystem == null) {
+      numberingSystem = formatter.getDefaultNumberingSystem(localeObject);
+      mNumberingSystem = numberingSystem;
+    }
+    return numberingSystem;
+  }
+
+  public String getNumberingSystem(
+      IPlatformNumberFormatter formatter, ILocaleObject<?> localeObject)
+      throws JSRangeErrorException {
+    String numberingSystem = mNumberingSystem;
+    if (numberingSystem == null) {
+      numberingSystem = formatter.getDefaultNumberingSystem(localeObject);
+      mNumberingSystem = numberingSystem;
+    }
+    return numberingSystem;
+  }
+}
@@ -10,6 +10,7 @@ package com.facebook.hermes.intl;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 class LanguageTagsGenerated {
 
@@ -582,6 +583,64 @@ public class LocaleIdentifier {
     // Note: We don't do complex region replacement as it is expensive to do.
   }
 
+  // Canonicalizing a tag parses it into a locale object and serializes it back, which is costly,
+  // and apps tend to pass the same handful of tags over and over again. The outcomes are memoized
+  // here, failures included, so that invalid tags aren't re-parsed just to throw again. The tags
+  // come from user code, so the cache stops accepting new entries once it is full.
+  private static final int CANONICALIZATION_CACHE_MAX_SIZE = 256;
+  private static final ConcurrentHashMap<String, CanonicalizedLocaleId> sCanonicalizationCache =
+      new ConcurrentHashMap<>();
+
+  private static class CanonicalizedLocaleId {
+    final String canonicalTag;
+    final String canonicalTagWithoutExtensions;
+    final String errorMessage;
+
+    CanonicalizedLocaleId(String canonicalTag, String canonicalTagWithoutExtensions) {
+      this.canonicalTag = canonicalTag;
+      this.canonicalTagWithoutExtensions = canonicalTagWithoutExtensions;
+      this.errorMessage = null;
+    }
+
+    CanonicalizedLocaleId(String errorMessage) {
+      this.canonicalTag = null;
+      this.canonicalTagWithoutExtensions = null;
+      this.errorMessage = errorMessage;
+    }
+  }
+
+  private static CanonicalizedLocaleId getCanonicalizedLocaleId(String inLocaleId)
+      throws JSRangeErrorException {
+    CanonicalizedLocaleId canonicalized = sCanonicalizationCache.get(inLocaleId);
+    if (canonicalized == null) {
+      try {
+        ILocaleObject<?> localeObject = LocaleObject.createFromLocaleId(inLocaleId);
+        canonicalized =
+            new CanonicalizedLocaleId(
+                localeObject.toCanonicalTag(), localeObject.toCanonicalTagWithoutExtensions());
+      } catch (JSRangeErrorException ex) {
+        canonicalized = new CanonicalizedLocaleId(ex.getMessage());
+      }
+
+      if (sCanonicalizationCache.size() < CANONICALIZATION_CACHE_MAX_SIZE) {
+        sCanonicalizationCache.put(inLocaleId, canonicalized);
+      }
+    }
+
+    if (canonicalized.errorMessage != null) {
+      throw new JSRangeErrorException(canonicalized.errorMessage);
+    }
+
+    return canonicalized;
+  }
+
+  // Same as LocaleObject.createFromLocaleId(inLocaleId).toCanonicalTagWithoutExtensions(), but
+  // served from the canonicalization cache.
+  static String canonicalizeLocaleIdWithoutExtensions(String inLocaleId)
+      throws JSRangeErrorException {
+    return getCanonicalizedLocaleId(inLocaleId).canonicalTagWithoutExtensions;
+  }
+
   static String canonicalizeLocaleId(String inLocaleId) throws JSRangeErrorException {
 
     // A quick comparative study with other implementations.
@@ -658,7 +717,7 @@ public class LocaleIdentifier {
     // added tables, but mostly static, not runtime allocations) traded against correctlness and
     // predictability.
 
-    return LocaleObject.createFromLocaleId(inLocaleId).toCanonicalTag();
+    return getCanonicalizedLocaleId(inLocaleId).canonicalTag;
   }
 
   // unicode_locale_extensions = sep [uU]
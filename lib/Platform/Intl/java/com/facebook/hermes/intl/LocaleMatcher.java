@@ -11,8 +11,8 @@ import android.icu.util.ULocale;
 import android.os.Build;
 import androidx.annotation.RequiresApi;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LocaleMatcher {
 
@@ -22,14 +22,10 @@ public class LocaleMatcher {
   }
 
   // https://tc39.es/ecma402/#sec-bestavailablelocale
-  public static String BestAvailableLocale(String[] availableLocales, String locale) {
+  public static String BestAvailableLocale(AvailableLocaleIndex availableLocales, String locale) {
     String candidate = locale;
     while (true) {
-      // TODO:: Method take String list as argument to avoid conversions between array and list?
-      // TODO:: AvailableLocales list always seems to be sorted. Is it guaranteed so that we can
-      // binary search int it ? Can we cheaply ensure that it is sorted ? Do we do multiple searches
-      // to justify sorting ?
-      if (Arrays.asList(availableLocales).indexOf(candidate) > -1) return candidate;
+      if (availableLocales.contains(candidate)) return candidate;
 
       int pos = candidate.lastIndexOf("-");
       if (pos < 0) return ""; // We treat empty string as "undefined"
@@ -45,18 +41,19 @@ public class LocaleMatcher {
   }
 
   // https://tc39.es/ecma402/#sec-lookupmatcher
-  public static LocaleMatchResult lookupMatch(String[] requestedLocales, String[] availableLocales)
+  public static LocaleMatchResult lookupMatch(
+      String[] requestedLocales, AvailableLocaleIndex availableLocales)
       throws JSRangeErrorException {
 
     LocaleMatchResult result = new LocaleMatchResult();
     for (String locale : requestedLocales) {
-      ILocaleObject<?> requestedLocaleObject = LocaleObject.createFromLocaleId(locale);
-      String noExtensionLocale = requestedLocaleObject.toCanonicalTagWithoutExtensions();
+      String noExtensionLocale = LocaleIdentifier.canonicalizeLocaleIdWithoutExtensions(locale);
 
       String availableLocale = BestAvailableLocale(availableLocales, noExtensionLocale);
       if (!availableLocale.isEmpty()) {
+        // Only the matched locale needs to be parsed for its extensions.
         result.matchedLocale = LocaleObject.createFromLocaleId(availableLocale);
-        result.extensions = requestedLocaleObject.getUnicodeExtensions();
+        result.extensions = LocaleObject.createFromLocaleId(locale).getUnicodeExtensions();
         return result;
       }
     }
@@ -66,40 +63,24 @@ public class LocaleMatcher {
   }
 
   public static String[] getAvailableLocales() {
-
-    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-      // Before L, Locale.toLanguageTag isn't available. Need to figure out how to get a locale id
-      // from locale object ... Currently resoring to support only en
-      return new String[] {"en"};
-    }
-
-    ArrayList<String> availableLocaleIds = new ArrayList<>();
-    java.util.Locale[] availableLocales = java.util.Locale.getAvailableLocales();
-    for (java.util.Locale locale : availableLocales) {
-      availableLocaleIds.add(locale.toLanguageTag()); // TODO:: Not available on platforms <= 20
-    }
-
-    String[] availableLocaleIdsArray = new String[availableLocaleIds.size()];
-    return availableLocaleIds.toArray(availableLocaleIdsArray);
+    return AvailableLocaleIndex.getJavaLocaleIndex().toArray();
   }
 
   // https://tc39.es/ecma402/#sec-lookupmatcher
   public static LocaleMatchResult lookupMatch(String[] requestedLocales)
       throws JSRangeErrorException {
-
-    String[] availableLocales = getAvailableLocales();
-    return lookupMatch(requestedLocales, availableLocales);
+    return lookupMatch(requestedLocales, AvailableLocaleIndex.getJavaLocaleIndex());
   }
 
   // https://tc39.es/ecma402/#sec-lookupsupportedlocales
   public static String[] lookupSupportedLocales(String[] requestedLocales)
       throws JSRangeErrorException {
     ArrayList<String> subset = new ArrayList<>();
-    String[] availableLocales = getAvailableLocales();
+    AvailableLocaleIndex availableLocales = AvailableLocaleIndex.getJavaLocaleIndex();
 
     for (String requestedLocale : requestedLocales) {
       String noExtensionLocale =
-          LocaleObject.createFromLocaleId(requestedLocale).toCanonicalTagWithoutExtensions();
+          LocaleIdentifier.canonicalizeLocaleIdWithoutExtensions(requestedLocale);
       String availableLocale = BestAvailableLocale(availableLocales, noExtensionLocale);
       if (availableLocale != null && !availableLocale.isEmpty()) subset.add(requestedLocale);
     }
@@ -108,26 +89,53 @@ public class LocaleMatcher {
     return subset.toArray(subsetArray);
   }
 
+  // ULocale.acceptLanguage walks every available locale, possibly several times as it falls back
+  // through parent locales, and it runs for every requested locale of every Intl constructor. Its
+  // result only depends on the requested locale, so it's memoized here, keyed by the requested
+  // tag without extensions. Results are stored exactly as acceptLanguage returned them, so
+  // matching behaves as before on every ICU version.
+  private static final int BEST_FIT_CACHE_MAX_SIZE = 512;
+  private static final Object BEST_FIT_NO_MATCH = new Object();
+  private static final ConcurrentHashMap<String, Object> sBestFitCache =
+      new ConcurrentHashMap<>();
+
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  private static class ICUAvailableLocalesHolder {
+    // ULocale.getAvailableLocales() returns a fresh copy on every call.
+    static final ULocale[] AVAILABLE_LOCALES = ULocale.getAvailableLocales();
+  }
+
   @RequiresApi(api = Build.VERSION_CODES.N)
   public static ULocale bestFitBestAvailableLocale(ILocaleObject<?> requestedLocaleObject)
       throws JSRangeErrorException {
-    ULocale[] availableLocales = ULocale.getAvailableLocales();
-
     android.icu.util.ULocale requestedULocaleWithoutExtensions =
         (android.icu.util.ULocale) requestedLocaleObject.getLocaleWithoutExtensions();
+    String key = requestedULocaleWithoutExtensions.toLanguageTag();
+
+    Object cached = sBestFitCache.get(key);
+    if (cached != null) {
+      return cached == BEST_FIT_NO_MATCH ? null : (ULocale) cached;
+    }
+
     android.icu.util.ULocale[] requestedLocalesArray =
         new android.icu.util.ULocale[] {requestedULocaleWithoutExtensions};
     boolean[] fallback = new boolean[1];
 
     android.icu.util.ULocale acceptedLocale =
-        android.icu.util.ULocale.acceptLanguage(requestedLocalesArray, availableLocales, fallback);
+        android.icu.util.ULocale.acceptLanguage(
+            requestedLocalesArray, ICUAvailableLocalesHolder.AVAILABLE_LOCALES, fallback);
 
     // Process if there is a match without fallback to ROOT
+    ULocale result = null;
     if (!fallback[0] && acceptedLocale != null) {
-      return acceptedLocale;
+      result = acceptedLocale;
     }
 
-    return null;
+    // The requested tags come from user code, so don't let the cache grow without bound.
+    if (sBestFitCache.size() < BEST_FIT_CACHE_MAX_SIZE) {
+      sBestFitCache.put(key, result != null ? result : BEST_FIT_NO_MATCH);
+    }
+    return result;
   }
 
   @RequiresApi(api = Build.VERSION_CODES.N)
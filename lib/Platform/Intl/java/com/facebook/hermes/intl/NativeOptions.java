@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+import com.facebook.proguard.annotations.DoNotStrip;
+import java.util.Map;
+
+// Intl options as they cross JNI: parallel arrays holding the name, type and value of each option.
+// The value of option i is strings[i] if its type is TYPE_STRING, and numbers[i] otherwise, with
+// booleans stored as 0 or 1.
+//
+// Building a HashMap of boxed values from native code takes a JNI call per key, per boxed value and
+// per put, and reading one back takes several more per entry to iterate it and reflect on the type
+// of each value. Arrays of primitives cross in a single call each.
+@DoNotStrip
+public class NativeOptions {
+
+  static final byte TYPE_BOOLEAN = 0;
+  static final byte TYPE_NUMBER = 1;
+  static final byte TYPE_STRING = 2;
+
+  private final String[] mKeys;
+  private final byte[] mTypes;
+  private final String[] mStrings;
+  private final double[] mNumbers;
+
+  private NativeOptions(int size) {
+    mKeys = new String[size];
+    mTypes = new byte[size];
+    mStrings = new String[size];
+    mNumbers = new double[size];
+  }
+
+  // Encodes resolved options for native code. Null values, and values of any other type, are
+  // dropped, as native code ignores them.
+  static NativeOptions fromMap(Map<String, Object> options) {
+    NativeOptions encoded = new NativeOptions(options.size());
+    int i = 0;
+    for (Map.Entry<String, Object> entry : options.entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof Boolean) {
+        encoded.mTypes[i] = TYPE_BOOLEAN;
+        encoded.mNumbers[i] = (Boolean) value ? 1 : 0;
+      } else if (value instanceof Integer || value instanceof Double) {
+        encoded.mTypes[i] = TYPE_NUMBER;
+        encoded.mNumbers[i] = ((Number) value).doubleValue();
+      } else if (value instanceof String) {
+        encoded.mTypes[i] = TYPE_STRING;
+        encoded.mStrings[i] = (String) value;
+      } else {
+        continue;
+      }
+      encoded.mKeys[i] = entry.getKey();
+      i++;
+    }
+    return i == options.size() ? encoded : encoded.truncate(i);
+  }
+
+  private NativeOptions truncate(int size) {
+    NativeOptions truncated = new NativeOptions(size);
+    System.arraycopy(mKeys, 0, truncated.mKeys, 0, size);
+    System.arraycopy(mTypes, 0, truncated.mTypes, 0, size);
+    System.arraycopy(mStrings, 0, truncated.mStrings, 0, size);
+    System.arraycopy(mNumbers, 0, truncated.mNumbers, 0, size);
+    return truncated;
+  }
+
+  @DoNotStrip
+  public String[] getKeys() {
+    return mKeys;
+  }
+
+  @DoNotStrip
+  public byte[] getTypes() {
+    return mTypes;
+  }
+
+  @DoNotStrip
+  public String[] getStrings() {
+    return mStrings;
+  }
+
+  @DoNotStrip
+  public double[] getNumbers() {
+    return mNumbers;
+  }
+}
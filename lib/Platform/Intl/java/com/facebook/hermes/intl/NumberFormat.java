@@ -12,14 +12,12 @@ import static com.facebook.hermes.intl.IPlatformNumberFormatter.Style.PERCENT;
 import static com.facebook.hermes.intl.IPlatformNumberFormatter.Style.UNIT;
 
 import android.os.Build;
+import androidx.annotation.VisibleForTesting;
 import com.facebook.proguard.annotations.DoNotStrip;
 import java.text.AttributedCharacterIterator;
-import java.text.CharacterIterator;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -177,30 +175,13 @@ public class NumberFormat {
   }
 
   // https://tc39.es/ecma402/#sec-setnumberformatunitoptions
-  private void setNumberFormatUnitOptions(Map<String, Object> options)
+  private void setNumberFormatUnitOptions(NumberFormatOptions options)
       throws JSRangeErrorException {
     // 3,4
-    // TODO :: Make it more robust.
-    Object style =
-        OptionHelpers.GetOption(
-            options,
-            "style",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"decimal", "percent", "currency", "unit"},
-            "decimal");
-    mResolvedStyle =
-        OptionHelpers.searchEnum(
-            IPlatformNumberFormatter.Style.class, JSObjects.getJavaString(style));
+    mResolvedStyle = options.style;
 
     // 5
-    Object currency =
-        OptionHelpers.GetOption(
-            options,
-            "currency",
-            OptionHelpers.OptionType.STRING,
-            JSObjects.Undefined(),
-            JSObjects.Undefined());
-    if (JSObjects.isUndefined(currency)) {
+    if (options.currency == null) {
       if (mResolvedStyle == CURRENCY) {
         // Note: This should be TypeError by spec. But. currently we don't allow throwing TypeError
         // from Java code.
@@ -209,35 +190,12 @@ public class NumberFormat {
         throw new JSRangeErrorException("Expected currency style !");
       }
     } else {
-      if (!isWellFormedCurrencyCode(JSObjects.getJavaString(currency)))
+      if (!isWellFormedCurrencyCode(options.currency))
         throw new JSRangeErrorException("Malformed currency code !");
     }
 
     // 6a is done in C++ code.
-    // 6b
-    Object currencyDisplay =
-        OptionHelpers.GetOption(
-            options,
-            "currencyDisplay",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"symbol", "narrowSymbol", "code", "name"},
-            "symbol");
-    Object currencySign =
-        OptionHelpers.GetOption(
-            options,
-            "currencySign",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"accounting", "standard"},
-            "standard");
-
-    Object unit =
-        OptionHelpers.GetOption(
-            options,
-            "unit",
-            OptionHelpers.OptionType.STRING,
-            JSObjects.Undefined(),
-            JSObjects.Undefined());
-    if (JSObjects.isUndefined(unit)) {
+    if (options.unit == null) {
       // Note: This should be TypeError by spec. But. currently we don't allow throwing TypeError
       // from Java code.
       // This check and throwing TypeError is already coded in native code ahead of the flow
@@ -246,88 +204,58 @@ public class NumberFormat {
         throw new JSRangeErrorException("Expected unit !");
       }
     } else {
-      if (!isWellFormedUnitIdentifier(JSObjects.getJavaString(unit)))
+      if (!isWellFormedUnitIdentifier(options.unit))
         throw new JSRangeErrorException("Malformed unit identifier !");
     }
 
     // 11 is done in C++ code.
-    // 12
-    Object unitDisplay =
-        OptionHelpers.GetOption(
-            options,
-            "unitDisplay",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"long", "short", "narrow"},
-            "short");
-
     if (mResolvedStyle == CURRENCY) {
-      mResolvedCurrency = normalizeCurrencyCode(JSObjects.getJavaString(currency));
-      mResolvedCurrencyDisplay =
-          OptionHelpers.searchEnum(
-              IPlatformNumberFormatter.CurrencyDisplay.class,
-              JSObjects.getJavaString(currencyDisplay));
-      mResolvedCurrencySign =
-          OptionHelpers.searchEnum(
-              IPlatformNumberFormatter.CurrencySign.class, JSObjects.getJavaString(currencySign));
+      mResolvedCurrency = normalizeCurrencyCode(options.currency);
+      mResolvedCurrencyDisplay = options.currencyDisplay;
+      mResolvedCurrencySign = options.currencySign;
     } else if (mResolvedStyle == IPlatformNumberFormatter.Style.UNIT) {
-      mResolvedUnit = JSObjects.getJavaString(unit);
-      mResolvedUnitDisplay =
-          OptionHelpers.searchEnum(
-              IPlatformNumberFormatter.UnitDisplay.class, JSObjects.getJavaString(unitDisplay));
+      mResolvedUnit = options.unit;
+      mResolvedUnitDisplay = options.unitDisplay;
     }
   }
 
   // https://tc39.es/ecma402/#sec-setnfdigitoptions
   private void setNumberFormatDigitOptions(
-      Map<String, Object> options, Object mnfdDefault, Object mxfdDefault)
+      NumberFormatOptions options, int mnfdDefault, int mxfdDefault)
       throws JSRangeErrorException {
 
-    Object mnid =
-        OptionHelpers.GetNumberOption(
-            options,
-            "minimumIntegerDigits",
-            JSObjects.newNumber(1),
-            JSObjects.newNumber(21),
-            JSObjects.newNumber(1));
-
-    Object mnfd = JSObjects.Get(options, "minimumFractionDigits");
-    Object mxfd = JSObjects.Get(options, "maximumFractionDigits");
-
-    Object mnsd = JSObjects.Get(options, "minimumSignificantDigits");
-    Object mxsd = JSObjects.Get(options, "maximumSignificantDigits");
-
-    mResolvedMinimumIntegerDigits = (int) Math.floor(JSObjects.getJavaDouble(mnid));
+    mResolvedMinimumIntegerDigits =
+        options.hasMinimumIntegerDigits
+            ? IntlOptions.getNumberOption(options.minimumIntegerDigits, 1, 21)
+            : 1;
 
-    if (!JSObjects.isUndefined(mnsd) || !JSObjects.isUndefined(mxsd)) {
+    if (options.hasMinimumSignificantDigits || options.hasMaximumSignificantDigits) {
 
       mRoundingType = IPlatformNumberFormatter.RoundingType.SIGNIFICANT_DIGITS;
 
-      mnsd =
-          OptionHelpers.DefaultNumberOption(
-              mnsd, JSObjects.newNumber(1), JSObjects.newNumber(21), JSObjects.newNumber(1));
-      mxsd =
-          OptionHelpers.DefaultNumberOption(
-              mxsd, mnsd, JSObjects.newNumber(21), JSObjects.newNumber(21));
+      mResolvedMinimumSignificantDigits =
+          options.hasMinimumSignificantDigits
+              ? IntlOptions.getNumberOption(options.minimumSignificantDigits, 1, 21)
+              : 1;
+      mResolvedMaximumSignificantDigits =
+          options.hasMaximumSignificantDigits
+              ? IntlOptions.getNumberOption(
+                  options.maximumSignificantDigits, mResolvedMinimumSignificantDigits, 21)
+              : 21;
 
-      mResolvedMinimumSignificantDigits = (int) Math.floor(JSObjects.getJavaDouble(mnsd));
-      mResolvedMaximumSignificantDigits = (int) Math.floor(JSObjects.getJavaDouble(mxsd));
-
-    } else if (!JSObjects.isUndefined(mnfd) || !JSObjects.isUndefined(mxfd)) {
+    } else if (options.hasMinimumFractionDigits || options.hasMaximumFractionDigits) {
 
       mRoundingType = IPlatformNumberFormatter.RoundingType.FRACTION_DIGITS;
 
-      mnfd =
-          OptionHelpers.DefaultNumberOption(
-              mnfd, JSObjects.newNumber(0), JSObjects.newNumber(20), mnfdDefault);
-      Object mxfdActualDefault =
-          JSObjects.newNumber(
-              Math.max(JSObjects.getJavaDouble(mnfd), JSObjects.getJavaDouble(mxfdDefault)));
-
-      mxfd =
-          OptionHelpers.DefaultNumberOption(mxfd, mnfd, JSObjects.newNumber(20), mxfdActualDefault);
-
-      mResolvedMinimumFractionDigits = (int) Math.floor(JSObjects.getJavaDouble(mnfd));
-      mResolvedMaximumFractionDigits = (int) Math.floor(JSObjects.getJavaDouble(mxfd));
+      mResolvedMinimumFractionDigits =
+          options.hasMinimumFractionDigits
+              ? IntlOptions.getNumberOption(options.minimumFractionDigits, 0, 20)
+              : mnfdDefault;
+      mResolvedMaximumFractionDigits =
+          options.hasMaximumFractionDigits
+              ? IntlOptions.getNumberOption(
+                  options.maximumFractionDigits, mResolvedMinimumFractionDigits, 20)
+              : Math.max(mResolvedMinimumFractionDigits, mxfdDefault);
 
     } else if (mResolvedNotation == IPlatformNumberFormatter.Notation.COMPACT) {
       mRoundingType = IPlatformNumberFormatter.RoundingType.COMPACT_ROUNDING;
@@ -349,8 +277,8 @@ public class NumberFormat {
       mResolvedMaximumFractionDigits = 5;
     } else {
       mRoundingType = IPlatformNumberFormatter.RoundingType.FRACTION_DIGITS;
-      mResolvedMinimumFractionDigits = (int) Math.floor(JSObjects.getJavaDouble(mnfdDefault));
-      mResolvedMaximumFractionDigits = (int) Math.floor(JSObjects.getJavaDouble(mxfdDefault));
+      mResolvedMinimumFractionDigits = mnfdDefault;
+      mResolvedMaximumFractionDigits = mxfdDefault;
     }
   }
 
@@ -358,32 +286,18 @@ public class NumberFormat {
     return IntlTextUtils.isUnicodeExtensionKeyTypeItem(token, 0, token.length() - 1);
   }
 
-  private void initializeNumberFormat(List<String> locales, Map<String, Object> options)
+  private void initializeNumberFormat(List<String> locales, NumberFormatOptions options)
       throws JSRangeErrorException {
 
     Object opt = JSObjects.newObject();
 
-    Object matcher =
-        OptionHelpers.GetOption(
-            options,
-            Constants.LOCALEMATCHER,
-            OptionHelpers.OptionType.STRING,
-            Constants.LOCALEMATCHER_POSSIBLE_VALUES,
-            Constants.LOCALEMATCHER_BESTFIT);
-    JSObjects.Put(opt, "localeMatcher", matcher);
-
-    Object numberingSystem =
-        OptionHelpers.GetOption(
-            options,
-            "numberingSystem",
-            OptionHelpers.OptionType.STRING,
-            JSObjects.Undefined(),
-            JSObjects.Undefined());
-    if (!JSObjects.isUndefined(numberingSystem)) {
-      if (!isLocaleIdType(JSObjects.getJavaString(numberingSystem)))
+    JSObjects.Put(opt, "localeMatcher", options.localeMatcher);
+
+    if (options.numberingSystem != null) {
+      if (!isLocaleIdType(options.numberingSystem))
         throw new JSRangeErrorException("Invalid numbering system !");
+      JSObjects.Put(opt, "nu", options.numberingSystem);
     }
-    JSObjects.Put(opt, "nu", numberingSystem);
 
     // https://tc39.es/ecma402/#sec-intl.numberformat-internal-slots
     // Note:: "cu" won't be accepted.
@@ -401,15 +315,16 @@ public class NumberFormat {
     } else {
       mUseDefaultNumberSystem = true;
       mResolvedNumberingSystem =
-          mPlatformNumberFormatter.getDefaultNumberingSystem(mResolvedLocaleObject);
+          LocaleDefaults.get(mResolvedLocaleObject)
+              .getNumberingSystem(mPlatformNumberFormatter, mResolvedLocaleObject);
     }
 
     // 5,6
     setNumberFormatUnitOptions(options);
 
     // 17, 18
-    Object mnfdDefault;
-    Object mxfdDefault;
+    int mnfdDefault;
+    int mxfdDefault;
     if (mResolvedStyle == CURRENCY) {
 
       int cDigits;
@@ -420,76 +335,34 @@ public class NumberFormat {
         cDigits = PlatformNumberFormatterAndroid.getCurrencyDigits(mResolvedCurrency);
       }
 
-      mnfdDefault = JSObjects.newNumber(cDigits);
-      mxfdDefault = JSObjects.newNumber(cDigits);
+      mnfdDefault = cDigits;
+      mxfdDefault = cDigits;
     } else {
-      mnfdDefault = JSObjects.newNumber(0);
+      mnfdDefault = 0;
 
-      if (mResolvedStyle == PERCENT) mxfdDefault = JSObjects.newNumber(0);
-      else mxfdDefault = JSObjects.newNumber(3);
+      if (mResolvedStyle == PERCENT) mxfdDefault = 0;
+      else mxfdDefault = 3;
     }
 
     // 19, 20
-    Object notation =
-        OptionHelpers.GetOption(
-            options,
-            "notation",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"standard", "scientific", "engineering", "compact"},
-            "standard");
-    mResolvedNotation =
-        OptionHelpers.searchEnum(
-            IPlatformNumberFormatter.Notation.class, JSObjects.getJavaString(notation));
+    mResolvedNotation = options.notation;
 
     // 21
     setNumberFormatDigitOptions(options, mnfdDefault, mxfdDefault);
 
     // 22, 23
-    Object compactDisplay =
-        OptionHelpers.GetOption(
-            options,
-            "compactDisplay",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"short", "long"},
-            "short");
     if (mResolvedNotation == IPlatformNumberFormatter.Notation.COMPACT) {
-      mResolvedCompactDisplay =
-          OptionHelpers.searchEnum(
-              IPlatformNumberFormatter.CompactDisplay.class,
-              JSObjects.getJavaString(compactDisplay));
+      mResolvedCompactDisplay = options.compactDisplay;
     }
 
-    Object groupingUsed =
-        OptionHelpers.GetOption(
-            options,
-            "useGrouping",
-            OptionHelpers.OptionType.BOOLEAN,
-            JSObjects.Undefined(),
-            JSObjects.newBoolean(true));
-    mGroupingUsed = JSObjects.getJavaBoolean(groupingUsed);
-
-    Object signDisplay =
-        OptionHelpers.GetOption(
-            options,
-            "signDisplay",
-            OptionHelpers.OptionType.STRING,
-            new String[] {"auto", "never", "always", "exceptZero"},
-            "auto");
-    mResolvedSignDisplay =
-        OptionHelpers.searchEnum(
-            IPlatformNumberFormatter.SignDisplay.class, JSObjects.getJavaString(signDisplay));
+    mGroupingUsed = options.useGrouping;
+
+    mResolvedSignDisplay = options.signDisplay;
   }
 
-  @DoNotStrip
-  public NumberFormat(List<String> locales, Map<String, Object> options)
+  private void configurePlatformNumberFormatter(IPlatformNumberFormatter platformNumberFormatter)
       throws JSRangeErrorException {
-    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N)
-      mPlatformNumberFormatter = new PlatformNumberFormatterICU();
-    else mPlatformNumberFormatter = new PlatformNumberFormatterAndroid();
-
-    initializeNumberFormat(locales, options);
-
-    mPlatformNumberFormatter
+    platformNumberFormatter
         .configure(
             mResolvedLocaleObject,
             mUseDefaultNumberSystem ? "" : mResolvedNumberingSystem,
@@ -508,6 +381,66 @@ public class NumberFormat {
         .setUnits(mResolvedUnit, mResolvedUnitDisplay);
   }
 
+  @DoNotStrip
+  public NumberFormat(List<String> locales, Map<String, Object> options)
+      throws JSRangeErrorException {
+    this(locales, IntlOptions.decode(new NumberFormatOptions(), options), true);
+  }
+
+  // Same as above. When allowLocalizedFormatter is false, the android.icu.number based
+  // PlatformLocalizedNumberFormatterICU is never used, which lets tests compare it against the
+  // older formatters.
+  @VisibleForTesting
+  NumberFormat(
+      List<String> locales, Map<String, Object> options, boolean allowLocalizedFormatter)
+      throws JSRangeErrorException {
+    this(
+        locales,
+        IntlOptions.decode(new NumberFormatOptions(), options),
+        allowLocalizedFormatter);
+  }
+
+  private NumberFormat(
+      List<String> locales, NumberFormatOptions options, boolean allowLocalizedFormatter)
+      throws JSRangeErrorException {
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N)
+      mPlatformNumberFormatter = new PlatformNumberFormatterICU();
+    else mPlatformNumberFormatter = new PlatformNumberFormatterAndroid();
+
+    initializeNumberFormat(locales, options);
+
+    // Prefer the immutable, shareable formatters of android.icu.number where they are available,
+    // keeping PlatformNumberFormatterICU for any options their skeletons can't express.
+    if (allowLocalizedFormatter && Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+      PlatformLocalizedNumberFormatterICU localizedFormatter =
+          new PlatformLocalizedNumberFormatterICU();
+      configurePlatformNumberFormatter(localizedFormatter);
+      if (localizedFormatter.buildFormatter()) {
+        mPlatformNumberFormatter = localizedFormatter;
+        return;
+      }
+    }
+
+    configurePlatformNumberFormatter(mPlatformNumberFormatter);
+  }
+
+  // Same as above, with the locales as an array and the options encoded as by NativeOptions, which
+  // is how native code passes them.
+  @DoNotStrip
+  public NumberFormat(
+      String[] locales,
+      String[] optionKeys,
+      byte[] optionTypes,
+      String[] optionStrings,
+      double[] optionNumbers)
+      throws JSRangeErrorException {
+    this(
+        Arrays.asList(locales),
+        IntlOptions.decode(
+            new NumberFormatOptions(), optionKeys, optionTypes, optionStrings, optionNumbers),
+        true);
+  }
+
   // options are localeMatcher:string
   //
   // Implementer note: This method corresponds roughly to
@@ -518,14 +451,12 @@ public class NumberFormat {
   @DoNotStrip
   public static List<String> supportedLocalesOf(List<String> locales, Map<String, Object> options)
       throws JSRangeErrorException {
-    String matcher =
-        JSObjects.getJavaString(
-            OptionHelpers.GetOption(
-                options,
-                Constants.LOCALEMATCHER,
-                OptionHelpers.OptionType.STRING,
-                Constants.LOCALEMATCHER_POSSIBLE_VALUES,
-                Constants.LOCALEMATCHER_BESTFIT));
+    return supportedLocalesOf(locales, IntlOptions.decode(new IntlOptions(), options));
+  }
+
+  private static List<String> supportedLocalesOf(List<String> locales, IntlOptions options)
+      throws JSRangeErrorException {
+    String matcher = options.localeMatcher;
     String[] localeArray = new String[locales.size()];
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && matcher.equals("best fit")) {
       return Arrays.asList(LocaleMatcher.bestFitSupportedLocales(locales.toArray(localeArray)));
@@ -534,6 +465,23 @@ public class NumberFormat {
     }
   }
 
+  // Same as above, with the arguments and result encoded as native code passes them.
+  @DoNotStrip
+  public static String[] supportedLocalesOf(
+      String[] locales,
+      String[] optionKeys,
+      byte[] optionTypes,
+      String[] optionStrings,
+      double[] optionNumbers)
+      throws JSRangeErrorException {
+    List<String> supportedLocales =
+        supportedLocalesOf(
+            Arrays.asList(locales),
+            IntlOptions.decode(
+                new IntlOptions(), optionKeys, optionTypes, optionStrings, optionNumbers));
+    return supportedLocales.toArray(new String[supportedLocales.size()]);
+  }
+
   // Implementer note: This method corresponds roughly to
   // https://tc39.es/ecma402/#sec-intl.numberformat.prototype.resolvedoptions
   //
@@ -589,43 +537,49 @@ public class NumberFormat {
     return finalResolvedOptions;
   }
 
+  // Same as resolvedOptions, encoded for native code.
+  @DoNotStrip
+  public NativeOptions resolvedNativeOptions() throws JSRangeErrorException {
+    return NativeOptions.fromMap(resolvedOptions());
+  }
+
   // Implementer note: This method corresponds roughly to
   // https://tc39.es/ecma402/#sec-formatnumber
+  //
+  // NumberFormat instances are cached and shared by every runtime in the process, and the
+  // underlying ICU formatter is not thread safe, hence the synchronization.
   @DoNotStrip
-  public String format(double n) throws JSRangeErrorException {
+  public synchronized String format(double n) throws JSRangeErrorException {
     return mPlatformNumberFormatter.format(n);
   }
 
-  // Implementer note: This method corresponds roughly to
-  // https://tc39.es/ecma402/#sec-formatnumbertoparts
+  // Formats each element of values as if by format(double), and returns the results concatenated.
+  // On return, ends[i] holds the offset just past the i'th result. This lets native code format a
+  // whole array with a single JNI call.
   @DoNotStrip
-  public List<Map<String, String>> formatToParts(double n) throws JSRangeErrorException {
-    ArrayList<Map<String, String>> parts = new ArrayList<>();
-
-    AttributedCharacterIterator iterator = mPlatformNumberFormatter.formatToParts(n);
+  public synchronized String formatBatch(double[] values, int[] ends)
+      throws JSRangeErrorException {
     StringBuilder sb = new StringBuilder();
-    for (char ch = iterator.first(); ch != CharacterIterator.DONE; ch = iterator.next()) {
-      sb.append(ch);
-      if (iterator.getIndex() + 1 == iterator.getRunLimit()) {
-        Iterator<AttributedCharacterIterator.Attribute> keyIterator =
-            iterator.getAttributes().keySet().iterator();
-        String key;
-
-        if (keyIterator.hasNext()) {
-          key = mPlatformNumberFormatter.fieldToString(keyIterator.next(), n);
-        } else {
-          key = "literal";
-        }
-        String value = sb.toString();
-        sb.setLength(0);
-
-        HashMap<String, String> part = new HashMap<>();
-        part.put("type", key);
-        part.put("value", value);
-        parts.add(part);
-      }
+    for (int i = 0; i < values.length; i++) {
+      sb.append(mPlatformNumberFormatter.format(values[i]));
+      ends[i] = sb.length();
     }
+    return sb.toString();
+  }
 
-    return parts;
+  // Implementer note: This method corresponds roughly to
+  // https://tc39.es/ecma402/#sec-formatnumbertoparts
+  @DoNotStrip
+  public synchronized FormattedParts formatToParts(final double n)
+      throws JSRangeErrorException {
+    return FormattedParts.fromRuns(
+        mPlatformNumberFormatter.formatToParts(n),
+        new FormattedParts.PartTypeResolver() {
+          @Override
+          public String getPartType(
+              AttributedCharacterIterator.Attribute attribute, String text, int start, int limit) {
+            return mPlatformNumberFormatter.fieldToString(attribute, n);
+          }
+        });
   }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+// The options read by https://tc39.es/ecma402/#sec-initializenumberformat, see IntlOptions.
+class NumberFormatOptions extends IntlOptions {
+
+  // Null if unset.
+  String numberingSystem = null;
+
+  IPlatformNumberFormatter.Style style = IPlatformNumberFormatter.Style.DECIMAL;
+
+  // Null if unset.
+  String currency = null;
+  IPlatformNumberFormatter.CurrencyDisplay currencyDisplay =
+      IPlatformNumberFormatter.CurrencyDisplay.SYMBOL;
+  IPlatformNumberFormatter.CurrencySign currencySign =
+      IPlatformNumberFormatter.CurrencySign.STANDARD;
+
+  // Null if unset.
+  String unit = null;
+  IPlatformNumberFormatter.UnitDisplay unitDisplay = IPlatformNumberFormatter.UnitDisplay.SHORT;
+
+  IPlatformNumberFormatter.Notation notation = IPlatformNumberFormatter.Notation.STANDARD;
+  IPlatformNumberFormatter.CompactDisplay compactDisplay =
+      IPlatformNumberFormatter.CompactDisplay.SHORT;
+
+  // The digit options are range checked by NumberFormat, as their bounds depend on each other.
+  boolean hasMinimumIntegerDigits = false;
+  double minimumIntegerDigits;
+  boolean hasMinimumFractionDigits = false;
+  double minimumFractionDigits;
+  boolean hasMaximumFractionDigits = false;
+  double maximumFractionDigits;
+  boolean hasMinimumSignificantDigits = false;
+  double minimumSignificantDigits;
+  boolean hasMaximumSignificantDigits = false;
+  double maximumSignificantDigits;
+
+  boolean useGrouping = true;
+
+  IPlatformNumberFormatter.SignDisplay signDisplay = IPlatformNumberFormatter.SignDisplay.AUTO;
+
+  @Override
+  void set(String key, byte type, String string, double number) throws JSRangeErrorException {
+    switch (key) {
+      case "numberingSystem":
+        numberingSystem = getString(type, string);
+        break;
+      case "style":
+        switch (getString(type, string)) {
+          case "decimal":
+            style = IPlatformNumberFormatter.Style.DECIMAL;
+            break;
+          case "percent":
+            style = IPlatformNumberFormatter.Style.PERCENT;
+            break;
+          case "currency":
+            style = IPlatformNumberFormatter.Style.CURRENCY;
+            break;
+          case "unit":
+            style = IPlatformNumberFormatter.Style.UNIT;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "currency":
+        currency = getString(type, string);
+        break;
+      case "currencyDisplay":
+        switch (getString(type, string)) {
+          case "symbol":
+            currencyDisplay = IPlatformNumberFormatter.CurrencyDisplay.SYMBOL;
+            break;
+          case "narrowSymbol":
+            currencyDisplay = IPlatformNumberFormatter.CurrencyDisplay.NARROWSYMBOL;
+            break;
+          case "code":
+            currencyDisplay = IPlatformNumberFormatter.CurrencyDisplay.CODE;
+            break;
+          case "name":
+            currencyDisplay = IPlatformNumberFormatter.CurrencyDisplay.NAME;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "currencySign":
+        switch (getString(type, string)) {
+          case "standard":
+            currencySign = IPlatformNumberFormatter.CurrencySign.STANDARD;
+            break;
+          case "accounting":
+            currencySign = IPlatformNumberFormatter.CurrencySign.ACCOUNTING;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "unit":
+        unit = getString(type, string);
+        break;
+      case "unitDisplay":
+        switch (getString(type, string)) {
+          case "long":
+            unitDisplay = IPlatformNumberFormatter.UnitDisplay.LONG;
+            break;
+          case "short":
+            unitDisplay = IPlatformNumberFormatter.UnitDisplay.SHORT;
+            break;
+          case "narrow":
+            unitDisplay = IPlatformNumberFormatter.UnitDisplay.NARROW;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "notation":
+        switch (getString(type, string)) {
+          case "standard":
+            notation = IPlatformNumberFormatter.Notation.STANDARD;
+            break;
+          case "scientific":
+            notation = IPlatformNumberFormatter.Notation.SCIENTIFIC;
+            break;
+          case "engineering":
+            notation = IPlatformNumberFormatter.Notation.ENGINEERING;
+            break;
+          case "compact":
+            notation = IPlatformNumberFormatter.Notation.COMPACT;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "minimumIntegerDigits":
+        minimumIntegerDigits = getNumber(type, number);
+        hasMinimumIntegerDigits = true;
+        break;
+      case "minimumFractionDigits":
+        minimumFractionDigits = getNumber(type, number);
+        hasMinimumFractionDigits = true;
+        break;
+      case "maximumFractionDigits":
+        maximumFractionDigits = getNumber(type, number);
+        hasMaximumFractionDigits = true;
+        break;
+      case "minimumSignificantDigits":
+        minimumSignificantDigits = getNumber(type, number);
+        hasMinimumSignificantDigits = true;
+        break;
+      case "maximumSignificantDigits":
+        maximumSignificantDigits = getNumber(type, number);
+        hasMaximumSignificantDigits = true;
+        break;
+      case "compactDisplay":
+        switch (getString(type, string)) {
+          case "short":
+            compactDisplay = IPlatformNumberFormatter.CompactDisplay.SHORT;
+            break;
+          case "long":
+            compactDisplay = IPlatformNumberFormatter.CompactDisplay.LONG;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      case "useGrouping":
+        useGrouping = getBoolean(type, number);
+        break;
+      case "signDisplay":
+        switch (getString(type, string)) {
+          case "auto":
+            signDisplay = IPlatformNumberFormatter.SignDisplay.AUTO;
+            break;
+          case "never":
+            signDisplay = IPlatformNumberFormatter.SignDisplay.NEVER;
+            break;
+          case "always":
+            signDisplay = IPlatformNumberFormatter.SignDisplay.ALWAYS;
+            break;
+          case "exceptZero":
+            signDisplay = IPlatformNumberFormatter.SignDisplay.EXCEPTZERO;
+            break;
+          default:
+            throw invalidValue();
+        }
+        break;
+      default:
+        super.set(key, type, string, number);
+        break;
+    }
+  }
+}
@@ -7,100 +7,67 @@
 
 package com.facebook.hermes.intl;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class OptionHelpers {
 
-  public enum OptionType {
-    BOOLEAN,
-    STRING
-  }
-
-  public static Object DefaultNumberOption(
-      Object value, Object minimum, Object maximum, Object fallback) throws JSRangeErrorException {
-    if (JSObjects.isUndefined(value)) return fallback;
+  // Maps each enum class to the constants looked up by searchEnum, keyed by their lower case names
+  // (and "2-digit" for DIGIT2), which is how option values spell them. Built on first use, since
+  // listing the constants of an enum through reflection copies them every time.
+  private static final ConcurrentHashMap<Class<?>, EnumIndex<?>> sEnumIndexes =
+      new ConcurrentHashMap<>();
 
-    if (!JSObjects.isNumber(value)) throw new JSRangeErrorException("Invalid number value !");
+  private static class EnumIndex<T extends Enum<T>> {
+    final HashMap<String, T> mConstants = new HashMap<>();
+    final T mUndefined;
 
-    double d = JSObjects.getJavaDouble(value);
-    if (Double.isNaN(d)
-        || d > JSObjects.getJavaDouble(maximum)
-        || d < JSObjects.getJavaDouble(minimum))
-      throw new JSRangeErrorException("Invalid number value !");
-
-    return value;
+    EnumIndex(Class<T> enumeration) {
+      T undefined = null;
+      for (T each : enumeration.getEnumConstants()) {
+        mConstants.put(each.name().toLowerCase(Locale.ROOT), each);
+        if (each.name().equals("DIGIT2")) mConstants.put("2-digit", each);
+        if (each.name().equals("UNDEFINED")) undefined = each;
+      }
+      mUndefined = undefined;
+    }
   }
 
-  public static Object GetNumberOption(
-      Object options, String property, Object minimum, Object maximum, Object fallback)
-      throws JSRangeErrorException {
-    Object value = JSObjects.Get(options, property);
-    return DefaultNumberOption(value, minimum, maximum, fallback);
+  @SuppressWarnings("unchecked")
+  private static <T extends Enum<T>> EnumIndex<T> getEnumIndex(Class<T> enumeration) {
+    EnumIndex<T> index = (EnumIndex<T>) sEnumIndexes.get(enumeration);
+    if (index == null) {
+      index = new EnumIndex<>(enumeration);
+      sEnumIndexes.put(enumeration, index);
+    }
+    return index;
   }
 
-  // https://tc39.es/ecma402/#sec-getoption
-  public static Object GetOption(
-      Object options, String property, OptionType type, Object validValues, Object fallback)
-      throws JSRangeErrorException {
-    Object value = JSObjects.Get(options, property);
+  public static <T extends Enum<T>> T searchEnum(Class<T> enumeration, Object value) {
+    EnumIndex<T> index = getEnumIndex(enumeration);
+
     if (JSObjects.isUndefined(value)) {
-      return fallback;
+      return index.mUndefined;
     }
 
-    // This is wierd. Currently empty string options are passed to java layer as null, hence we do
-    // this.
-    // [[Follow up]]
     if (JSObjects.isNull(value)) {
-      value = "";
+      return null;
     }
 
-    if (type == OptionType.BOOLEAN) {
-      if (!JSObjects.isBoolean(value)) {
-        throw new JSRangeErrorException("Boolean option expected but not found");
-      }
+    String valueString = JSObjects.getJavaString(value);
+    T constant = index.mConstants.get(valueString);
+    if (constant != null) {
+      return constant;
     }
 
-    if (type == OptionType.STRING) {
-      if (!JSObjects.isString(value)) {
-        throw new JSRangeErrorException("String option expected but not found");
+    // Values which aren't spelled in lower case are rare, and may only match case insensitively.
+    for (T each : enumeration.getEnumConstants()) {
+      if (each.name().compareToIgnoreCase(valueString) == 0) {
+        return each;
       }
     }
 
-    if (!JSObjects.isUndefined(validValues)) {
-      // It must be an array otherwise.
-      if (!Arrays.asList((Object[]) validValues).contains(value))
-        throw new JSRangeErrorException("String option expected but not found");
-    }
-
-    return value;
-  }
-
-  public static <T extends Enum<T>> T searchEnum(Class<T> enumeration, Object value) {
-    try {
-
-      if (JSObjects.isUndefined(value)) {
-        return Enum.valueOf(enumeration, "UNDEFINED");
-      }
-
-      if (JSObjects.isNull(value)) {
-        return null;
-      }
-
-      String valueString = JSObjects.getJavaString(value);
-      if (valueString.equals("2-digit")) {
-        return Enum.valueOf(enumeration, "DIGIT2");
-      }
-
-      for (T each : enumeration.getEnumConstants()) {
-        if (each.name().compareToIgnoreCase(valueString) == 0) {
-          return each;
-        }
-      }
-
-      return null;
-
-    } catch (IllegalArgumentException ex) {
-      return null;
-    }
+    return null;
   }
 }
@@ -39,6 +39,11 @@ public class PlatformCollatorAndroid implements IPlatformCollator {
     return mCollator.compare(source, target);
   }
 
+  @Override
+  public byte[] getCollationKey(String source) {
+    return mCollator.getCollationKey(source).toByteArray();
+  }
+
   @Override
   public Sensitivity getSensitivity() {
     if (mCollator == null) {
@@ -14,11 +14,16 @@ import android.icu.text.Collator;
 import android.icu.text.RuleBasedCollator;
 import android.os.Build;
 import androidx.annotation.RequiresApi;
-import java.util.ArrayList;
 
 public class PlatformCollatorICU implements IPlatformCollator {
 
   private android.icu.text.RuleBasedCollator mCollator = null;
+  private String mLocaleTag = null;
+
+  // Frozen collators are immutable and thread safe, so collators with the same locale and
+  // attributes are shared process wide.
+  private static final PrototypePool<RuleBasedCollator> sFrozenCollators =
+      new PrototypePool<>(32);
 
   PlatformCollatorICU() {}
 
@@ -28,6 +33,7 @@ public class PlatformCollatorICU implements IPlatformCollator {
     LocaleObjectICU mLocale = (LocaleObjectICU) localeObject;
 
     mCollator = (RuleBasedCollator) RuleBasedCollator.getInstance(mLocale.getLocale());
+    mLocaleTag = mLocale.toCanonicalTag();
 
     // Normalization is always on by the spec. We don't know whether the text is already normalized,
     // hence we can't optimize as of now.
@@ -36,10 +42,40 @@ public class PlatformCollatorICU implements IPlatformCollator {
     return this;
   }
 
+  // The attributes are only set while the owning Collator is being constructed, so the collator is
+  // frozen, or swapped for an equivalent shared one, on first comparison.
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  private RuleBasedCollator getFrozenCollator() {
+    if (mCollator.isFrozen()) return mCollator;
+
+    String key =
+        mLocaleTag
+            + '\u0000'
+            + mCollator.getStrength()
+            + (mCollator.isCaseLevel() ? "c" : "")
+            + (mCollator.isAlternateHandlingShifted() ? "s" : "")
+            + (mCollator.getNumericCollation() ? "n" : "")
+            + (mCollator.isUpperCaseFirst() ? "u" : "")
+            + (mCollator.isLowerCaseFirst() ? "l" : "");
+    RuleBasedCollator frozen = sFrozenCollators.get(key);
+    if (frozen == null) {
+      frozen = sFrozenCollators.register(key, (RuleBasedCollator) mCollator.freeze());
+    }
+
+    mCollator = frozen;
+    return mCollator;
+  }
+
   @RequiresApi(api = Build.VERSION_CODES.N)
   @Override
   public int compare(String source, String target) {
-    return mCollator.compare(source, target);
+    return getFrozenCollator().compare(source, target);
+  }
+
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  @Override
+  public byte[] getCollationKey(String source) {
+    return getFrozenCollator().getCollationKey(source).toByteArray();
   }
 
   @RequiresApi(api = Build.VERSION_CODES.N)
@@ -128,8 +164,6 @@ public class PlatformCollatorICU implements IPlatformCollator {
   @RequiresApi(api = Build.VERSION_CODES.N)
   @Override
   public String[] getAvailableLocales() {
-    ArrayList<String> availableLocaleIds = new ArrayList<>();
-
     // [[Comment copied here from NumberFormat]]
     // NumberFormat.getAvailableLocales() returns a shorter list compared to
     // ULocale.getAvailableLocales.
@@ -139,15 +173,6 @@ public class PlatformCollatorICU implements IPlatformCollator {
     // to be formatted as "非數值" in "zh-TW" by as "NaN" in "zh"
     // In short, NumberFormat.getAvailableLocales() doesn't contain all the locales as the
     // NumberFormat can format. Hence, using ULocale.getAvailableLocales()
-    //
-    // java.util.Locale[] availableLocales = android.icu.text.Collator.getAvailableLocales();
-    android.icu.util.ULocale[] availableLocales = android.icu.util.ULocale.getAvailableLocales();
-
-    for (android.icu.util.ULocale locale : availableLocales) {
-      availableLocaleIds.add(locale.toLanguageTag()); // TODO:: Not available on platforms <= 20
-    }
-
-    String[] availableLocaleIdsArray = new String[availableLocaleIds.size()];
-    return availableLocaleIds.toArray(availableLocaleIdsArray);
+    return AvailableLocaleIndex.getICULocaleIndex().toArray();
   }
 }
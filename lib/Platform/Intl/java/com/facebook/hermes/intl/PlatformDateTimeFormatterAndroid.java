@@ -10,6 +10,7 @@ package com.facebook.hermes.intl;
 import android.os.Build;
 import java.text.AttributedCharacterIterator;
 import java.text.DateFormat;
+import java.text.FieldPosition;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
@@ -19,11 +20,21 @@ import java.util.TimeZone;
 public class PlatformDateTimeFormatterAndroid implements IPlatformDateTimeFormatter {
   private DateFormat mDateFormat = null;
 
+  // Scratch objects for formatTo.
+  private final Date mScratchDate = new Date();
+  private final FieldPosition mScratchFieldPosition = new FieldPosition(0);
+
   @Override
   public String format(double n) {
     return mDateFormat.format(new Date((long) n));
   }
 
+  @Override
+  public void formatTo(double n, StringBuffer result) {
+    mScratchDate.setTime((long) n);
+    mDateFormat.format(mScratchDate, result, mScratchFieldPosition);
+  }
+
   @Override
   public String fieldToString(AttributedCharacterIterator.Attribute field, String fieldValue) {
     if (field == DateFormat.Field.DAY_OF_WEEK) {
@@ -10,6 +10,7 @@ package com.facebook.hermes.intl;
 import static com.facebook.hermes.intl.IPlatformDateTimeFormatter.DateStyle.UNDEFINED;
 
 import android.icu.text.DateFormat;
+import android.icu.text.DateTimePatternGenerator;
 import android.icu.text.NumberingSystem;
 import android.icu.text.SimpleDateFormat;
 import android.icu.util.Calendar;
@@ -18,19 +19,121 @@ import android.icu.util.ULocale;
 import android.os.Build;
 import androidx.annotation.RequiresApi;
 import java.text.AttributedCharacterIterator;
+import java.text.FieldPosition;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PlatformDateTimeFormatterICU implements IPlatformDateTimeFormatter {
   private DateFormat mDateFormat = null;
 
+  // Scratch objects for formatTo. The calendar is a copy of the formatter's own, made on first use
+  // so that it picks up the time zone set in configure.
+  private Calendar mScratchCalendar = null;
+  private final FieldPosition mScratchFieldPosition = new FieldPosition(0);
+
   @RequiresApi(api = Build.VERSION_CODES.N)
   @Override
   public String format(double n) {
     return mDateFormat.format(new Date((long) n));
   }
 
+  // Same-day memoization for formatTo.
+  //
+  // Sorted streams of timestamps (chat logs, event feeds) mostly share their date with the
+  // previously formatted one. When every date field of the pattern precedes every time field, the
+  // pattern is split into a date part and a time part, each with its own formatter cloned from
+  // mDateFormat, and the formatted date part is kept for as long as the local day doesn't change.
+  // Date fields only depend on the local day, so the spliced output is identical to formatting the
+  // full pattern, DST transitions included. Patterns which don't split that way (e.g. a time zone
+  // name ahead of the date) are always formatted in full.
+  private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+  private SimpleDateFormat mDatePartFormat = null;
+  private SimpleDateFormat mTimePartFormat = null;
+  private long mCachedLocalDay = Long.MIN_VALUE;
+  private String mCachedDatePart = null;
+
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  @Override
+  public void formatTo(double n, StringBuffer result) {
+    if (mScratchCalendar == null) {
+      mScratchCalendar = (Calendar) mDateFormat.getCalendar().clone();
+      splitPattern();
+    }
+    mScratchCalendar.setTimeInMillis((long) n);
+
+    if (mDatePartFormat == null) {
+      mDateFormat.format(mScratchCalendar, result, mScratchFieldPosition);
+      return;
+    }
+
+    long localMillis =
+        (long) n
+            + mScratchCalendar.get(Calendar.ZONE_OFFSET)
+            + mScratchCalendar.get(Calendar.DST_OFFSET);
+    long localDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+    if (localDay != mCachedLocalDay || mCachedDatePart == null) {
+      int start = result.length();
+      mDatePartFormat.format(mScratchCalendar, result, mScratchFieldPosition);
+      mCachedDatePart = result.substring(start);
+      mCachedLocalDay = localDay;
+    } else {
+      result.append(mCachedDatePart);
+    }
+
+    if (mTimePartFormat != null)
+      mTimePartFormat.format(mScratchCalendar, result, mScratchFieldPosition);
+  }
+
+  private static boolean isDateFieldLetter(char c) {
+    return "GyYuUrQqMLlwWdDFgEec".indexOf(c) >= 0;
+  }
+
+  private static boolean isTimeFieldLetter(char c) {
+    return "abBhHkKmsSAzZOvVXx".indexOf(c) >= 0;
+  }
+
+  // Sets up mDatePartFormat and mTimePartFormat if the pattern can be split as described above.
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  private void splitPattern() {
+    if (!(mDateFormat instanceof SimpleDateFormat)) return;
+    String pattern = ((SimpleDateFormat) mDateFormat).toPattern();
+
+    int timePartStart = -1;
+    boolean hasDateField = false;
+    boolean inQuote = false;
+    for (int idx = 0; idx < pattern.length(); idx++) {
+      char c = pattern.charAt(idx);
+      if (c == '\'') {
+        inQuote = !inQuote;
+        continue;
+      }
+
+      if (inQuote || !((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) continue;
+
+      if (isDateFieldLetter(c)) {
+        if (timePartStart >= 0) return; // A date field after a time field.
+        hasDateField = true;
+      } else if (isTimeFieldLetter(c)) {
+        if (timePartStart < 0) timePartStart = idx;
+      } else {
+        return; // Unknown field, don't take chances.
+      }
+    }
+
+    if (!hasDateField) return;
+
+    String datePattern = timePartStart < 0 ? pattern : pattern.substring(0, timePartStart);
+    mDatePartFormat = (SimpleDateFormat) mDateFormat.clone();
+    mDatePartFormat.applyPattern(datePattern);
+
+    if (timePartStart >= 0) {
+      mTimePartFormat = (SimpleDateFormat) mDateFormat.clone();
+      mTimePartFormat.applyPattern(pattern.substring(timePartStart));
+    }
+  }
+
   @RequiresApi(api = Build.VERSION_CODES.N)
   @Override
   public String fieldToString(AttributedCharacterIterator.Attribute field, String fieldValue) {
@@ -312,6 +415,41 @@ public class PlatformDateTimeFormatterICU implements IPlatformDateTimeFormatter
     return skeletonBuffer.toString();
   }
 
+  // Finding the best pattern for a skeleton is by far the most expensive part of creating a
+  // formatter: DateTimePatternGenerator.getInstance clones a per-locale generator, and
+  // getBestPattern searches it. Both only depend on the locale (numbering system and calendar
+  // extensions included) and the skeleton (which also encodes the hour cycle), so frozen
+  // generators are kept per locale and the resolved patterns per (locale, skeleton). Frozen
+  // generators are safe to share between threads.
+  //
+  // The keys come from user code, so the caches stop accepting new entries once they are full.
+  private static final int PATTERN_GENERATOR_CACHE_MAX_SIZE = 16;
+  private static final int PATTERN_CACHE_MAX_SIZE = 128;
+  private static final ConcurrentHashMap<String, DateTimePatternGenerator>
+      sPatternGeneratorCache = new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<String, String> sPatternCache = new ConcurrentHashMap<>();
+
+  // Configured formatters, only ever used as prototypes to clone from.
+  private static final PrototypePool<DateFormat> sDateFormatPrototypes = new PrototypePool<>(64);
+
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  private static String getBestPattern(String localeTag, ULocale locale, String skeleton) {
+    String patternKey = localeTag + '\u0000' + skeleton;
+    String pattern = sPatternCache.get(patternKey);
+    if (pattern != null) return pattern;
+
+    DateTimePatternGenerator generator = sPatternGeneratorCache.get(localeTag);
+    if (generator == null) {
+      generator = DateTimePatternGenerator.getInstance(locale).freeze();
+      if (sPatternGeneratorCache.size() < PATTERN_GENERATOR_CACHE_MAX_SIZE)
+        sPatternGeneratorCache.put(localeTag, generator);
+    }
+
+    pattern = generator.getBestPattern(skeleton);
+    if (sPatternCache.size() < PATTERN_CACHE_MAX_SIZE) sPatternCache.put(patternKey, pattern);
+    return pattern;
+  }
+
   @RequiresApi(api = Build.VERSION_CODES.N)
   public void configure(
       ILocaleObject<?> resolvedLocaleObject,
@@ -350,7 +488,7 @@ public class PlatformDateTimeFormatterICU implements IPlatformDateTimeFormatter
             timeStyle,
             hour12);
 
-    Calendar calendarInstance = null;
+    ULocale calendarLocale = null;
     if (!calendar.isEmpty()) {
       ArrayList<String> calendarList = new ArrayList<>();
       calendarList.add(JSObjects.getJavaString(calendar));
@@ -358,7 +496,7 @@ public class PlatformDateTimeFormatterICU implements IPlatformDateTimeFormatter
       ILocaleObject<?> modifiedLocaleObject = resolvedLocaleObject.cloneObject();
       modifiedLocaleObject.setUnicodeExtensions("ca", calendarList);
 
-      calendarInstance = Calendar.getInstance((ULocale) modifiedLocaleObject.getLocale());
+      calendarLocale = (ULocale) modifiedLocaleObject.getLocale();
     }
 
     if (!numberingSystem.isEmpty()) {
@@ -380,25 +518,42 @@ public class PlatformDateTimeFormatterICU implements IPlatformDateTimeFormatter
       resolvedLocaleObject.setUnicodeExtensions("nu", numberingSystemList);
     }
 
-    if (calendarInstance != null)
-      mDateFormat =
-          DateFormat.getPatternInstance(
-              calendarInstance, skeleton, (ULocale) resolvedLocaleObject.getLocale());
-    else
-      mDateFormat =
-          DateFormat.getPatternInstance(skeleton, (ULocale) resolvedLocaleObject.getLocale());
-
-    if (!JSObjects.isUndefined(timeZone) && !JSObjects.isNull(timeZone)) {
-      TimeZone timeZoneObject = TimeZone.getTimeZone(JSObjects.getJavaString(timeZone));
-      mDateFormat.setTimeZone(timeZoneObject);
+    ULocale locale = (ULocale) resolvedLocaleObject.getLocale();
+    String localeTag = resolvedLocaleObject.toCanonicalTag();
+    String pattern = getBestPattern(localeTag, locale, skeleton);
+    boolean hasTimeZone = !JSObjects.isUndefined(timeZone) && !JSObjects.isNull(timeZone);
+
+    // Cloning a configured formatter is much cheaper than creating one, which loads the date format
+    // symbols and sets up a calendar and a number format.
+    String prototypeKey =
+        localeTag
+            + '\u0000'
+            + pattern
+            + '\u0000'
+            + calendar
+            + '\u0000'
+            + (hasTimeZone ? JSObjects.getJavaString(timeZone) : "");
+    DateFormat prototype = sDateFormatPrototypes.get(prototypeKey);
+    if (prototype == null) {
+      // This is what DateFormat.getPatternInstance does, minus the pattern search when the same
+      // configuration was seen before.
+      SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern, locale);
+      if (calendarLocale != null) simpleDateFormat.setCalendar(Calendar.getInstance(calendarLocale));
+
+      if (hasTimeZone) {
+        TimeZone timeZoneObject = TimeZone.getTimeZone(JSObjects.getJavaString(timeZone));
+        simpleDateFormat.setTimeZone(timeZoneObject);
+      }
+
+      prototype = sDateFormatPrototypes.register(prototypeKey, simpleDateFormat);
     }
+
+    mDateFormat = (DateFormat) prototype.clone();
   }
 
   @RequiresApi(api = Build.VERSION_CODES.N)
   @Override
   public String[] getAvailableLocales() {
-    ArrayList<String> availableLocaleIds = new ArrayList<>();
-
     // [[Comment copied here from NumberFormat]]
     // NumberFormat.getAvailableLocales() returns a shorter list compared to
     // ULocale.getAvailableLocales.
@@ -408,16 +563,7 @@ public class PlatformDateTimeFormatterICU implements IPlatformDateTimeFormatter
     // to be formatted as "非數值" in "zh-TW" by as "NaN" in "zh"
     // In short, NumberFormat.getAvailableLocales() doesn't contain all the locales as the
     // NumberFormat can format. Hence, using ULocale.getAvailableLocales()
-    //
-
-    // java.util.Locale[] availableLocales = android.icu.text.DateFormat.getAvailableLocales();
-    android.icu.util.ULocale[] availableLocales = ULocale.getAvailableLocales();
-    for (android.icu.util.ULocale locale : availableLocales) {
-      availableLocaleIds.add(locale.toLanguageTag());
-    }
-
-    String[] availableLocaleIdsArray = new String[availableLocaleIds.size()];
-    return availableLocaleIds.toArray(availableLocaleIdsArray);
+    return AvailableLocaleIndex.getICULocaleIndex().toArray();
   }
 
   PlatformDateTimeFormatterICU() {}
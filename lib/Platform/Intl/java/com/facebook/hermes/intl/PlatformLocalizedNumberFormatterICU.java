@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+import static com.facebook.hermes.intl.IPlatformNumberFormatter.Style.CURRENCY;
+import static com.facebook.hermes.intl.IPlatformNumberFormatter.Style.DECIMAL;
+import static com.facebook.hermes.intl.IPlatformNumberFormatter.Style.UNIT;
+
+import android.icu.number.LocalizedNumberFormatter;
+import android.icu.number.NumberFormatter;
+import android.icu.text.NumberingSystem;
+import android.icu.util.Currency;
+import android.icu.util.MeasureUnit;
+import android.icu.util.ULocale;
+import android.os.Build;
+import androidx.annotation.RequiresApi;
+import java.text.AttributedCharacterIterator;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+// An implementation of NumberFormat services using the android.icu.number APIs available in Android
+// from API 30 onwards.
+//
+// Unlike PlatformNumberFormatterICU, which patches a mutable DecimalFormat (prefixes for
+// signDisplay, symbols for currencyDisplay), this implementation translates the resolved options
+// into an ICU number skeleton
+// (https://unicode-org.github.io/icu/userguide/format_parse/numbers/skeletons.html) and formats
+// with the LocalizedNumberFormatter built from it. Those are immutable and thread safe, so a
+// formatter is built once per (locale, skeleton) and shared by every runtime and thread in the
+// process. NumberFormat only uses this implementation once buildFormatter succeeds.
+@RequiresApi(api = Build.VERSION_CODES.R)
+public class PlatformLocalizedNumberFormatterICU implements IPlatformNumberFormatter {
+
+  // The keys come from user code, so the cache stops accepting new entries once it is full.
+  private static final int FORMATTER_CACHE_MAX_SIZE = 64;
+  private static final ConcurrentHashMap<String, LocalizedNumberFormatter> sFormatterCache =
+      new ConcurrentHashMap<>();
+
+  private LocaleObjectICU mLocaleObject;
+  private IPlatformNumberFormatter.Style mStyle;
+  private IPlatformNumberFormatter.CurrencySign mCurrencySign;
+
+  // Skeleton stems, accumulated by the setters below.
+  private String mNotationStem = "";
+  private String mUnitStem = "";
+  private String mUnitWidthStem = "";
+  private String mGroupingStem = "";
+  private String mIntegerWidthStem = "";
+  private String mPrecisionStem = "";
+  private String mSignStem = "";
+
+  private LocalizedNumberFormatter mFormatter = null;
+
+  PlatformLocalizedNumberFormatterICU() {}
+
+  @Override
+  public PlatformLocalizedNumberFormatterICU configure(
+      ILocaleObject<?> localeObject,
+      String numberingSystem,
+      IPlatformNumberFormatter.Style style,
+      IPlatformNumberFormatter.CurrencySign currencySign,
+      IPlatformNumberFormatter.Notation notation,
+      IPlatformNumberFormatter.CompactDisplay compactDisplay)
+      throws JSRangeErrorException {
+    if (!numberingSystem.isEmpty()) {
+      NumberingSystem numberingSystemObject;
+      try {
+        numberingSystemObject =
+            NumberingSystem.getInstanceByName(JSObjects.getJavaString(numberingSystem));
+      } catch (RuntimeException ex) {
+        throw new JSRangeErrorException("Invalid numbering system: " + numberingSystem);
+      }
+
+      if (numberingSystemObject == null)
+        throw new JSRangeErrorException("Invalid numbering system: " + numberingSystem);
+
+      ArrayList<String> numberingSystemList = new ArrayList<>();
+      numberingSystemList.add(JSObjects.getJavaString(numberingSystem));
+
+      localeObject.setUnicodeExtensions("nu", numberingSystemList);
+    }
+
+    mLocaleObject = (LocaleObjectICU) localeObject;
+    mStyle = style;
+    mCurrencySign = currencySign;
+
+    if (style == IPlatformNumberFormatter.Style.PERCENT) {
+      mUnitStem = "percent scale/100";
+    }
+
+    // As in PlatformNumberFormatterICU, notations only apply to the decimal and unit styles.
+    if (style == DECIMAL || style == UNIT) {
+      switch (notation) {
+        case SCIENTIFIC:
+          mNotationStem = "scientific";
+          break;
+        case ENGINEERING:
+          mNotationStem = "engineering";
+          break;
+        case COMPACT:
+          mNotationStem =
+              compactDisplay == IPlatformNumberFormatter.CompactDisplay.SHORT
+                  ? "compact-short"
+                  : "compact-long";
+          break;
+        default:
+          break;
+      }
+    }
+
+    return this;
+  }
+
+  @Override
+  public PlatformLocalizedNumberFormatterICU setCurrency(
+      String currencyCode, IPlatformNumberFormatter.CurrencyDisplay currencyDisplay)
+      throws JSRangeErrorException {
+    if (mStyle == CURRENCY) {
+      String isoCode;
+      try {
+        isoCode = Currency.getInstance(currencyCode).getCurrencyCode();
+      } catch (IllegalArgumentException ex) {
+        throw new JSRangeErrorException("Invalid currency code !");
+      }
+      mUnitStem = "currency/" + isoCode;
+
+      switch (currencyDisplay) {
+        case NARROWSYMBOL:
+          mUnitWidthStem = "unit-width-narrow";
+          break;
+        case CODE:
+          mUnitWidthStem = "unit-width-iso-code";
+          break;
+        case NAME:
+          mUnitWidthStem = "unit-width-full-name";
+          break;
+        default:
+          mUnitWidthStem = "unit-width-short";
+          break;
+      }
+    }
+
+    return this;
+  }
+
+  @Override
+  public PlatformLocalizedNumberFormatterICU setGrouping(boolean mGroupingUsed) {
+    mGroupingStem = mGroupingUsed ? "" : "group-off";
+    return this;
+  }
+
+  @Override
+  public PlatformLocalizedNumberFormatterICU setMinIntergerDigits(int minimumIntegerDigits) {
+    if (minimumIntegerDigits != -1) {
+      StringBuilder stem = new StringBuilder("integer-width/+");
+      for (int i = 0; i < minimumIntegerDigits; i++) stem.append('0');
+      mIntegerWidthStem = stem.toString();
+    }
+
+    return this;
+  }
+
+  @Override
+  public PlatformLocalizedNumberFormatterICU setSignificantDigits(
+      IPlatformNumberFormatter.RoundingType roundingType,
+      int minimumSignificantDigits,
+      int maximumSignificantDigits)
+      throws JSRangeErrorException {
+    if (roundingType == IPlatformNumberFormatter.RoundingType.SIGNIFICANT_DIGITS) {
+      int minimum = minimumSignificantDigits >= 0 ? minimumSignificantDigits : 1;
+      if (maximumSignificantDigits >= 0 && maximumSignificantDigits < minimum)
+        throw new JSRangeErrorException(
+            "maximumSignificantDigits should be at least equal to minimumSignificantDigits");
+
+      StringBuilder stem = new StringBuilder();
+      for (int i = 0; i < minimum; i++) stem.append('@');
+      if (maximumSignificantDigits < 0) stem.append('+');
+      else for (int i = minimum; i < maximumSignificantDigits; i++) stem.append('#');
+      mPrecisionStem = stem.toString();
+    }
+
+    return this;
+  }
+
+  @Override
+  public PlatformLocalizedNumberFormatterICU setFractionDigits(
+      IPlatformNumberFormatter.RoundingType roundingType,
+      int minimumFractionDigits,
+      int maximumFractionDigits) {
+    if (roundingType == IPlatformNumberFormatter.RoundingType.FRACTION_DIGITS) {
+      int minimum = Math.max(minimumFractionDigits, 0);
+      if (maximumFractionDigits == 0 && minimum == 0) {
+        mPrecisionStem = "precision-integer";
+      } else if (maximumFractionDigits >= 0 || minimum > 0) {
+        StringBuilder stem = new StringBuilder(".");
+        for (int i = 0; i < minimum; i++) stem.append('0');
+        if (maximumFractionDigits < 0) stem.append('+');
+        else for (int i = minimum; i < maximumFractionDigits; i++) stem.append('#');
+        mPrecisionStem = stem.toString();
+      }
+    }
+
+    return this;
+  }
+
+  @Override
+  public PlatformLocalizedNumberFormatterICU setSignDisplay(
+      IPlatformNumberFormatter.SignDisplay signDisplay) {
+    boolean accounting =
+        mStyle == CURRENCY && mCurrencySign == IPlatformNumberFormatter.CurrencySign.ACCOUNTING;
+    switch (signDisplay) {
+      case ALWAYS:
+        mSignStem = accounting ? "sign-accounting-always" : "sign-always";
+        break;
+      case NEVER:
+        mSignStem = "sign-never";
+        break;
+      case EXCEPTZERO:
+        mSignStem = accounting ? "sign-accounting-except-zero" : "sign-except-zero";
+        break;
+      default:
+        mSignStem = accounting ? "sign-accounting" : "";
+        break;
+    }
+
+    return this;
+  }
+
+  @Override
+  public PlatformLocalizedNumberFormatterICU setUnits(
+      String unit, IPlatformNumberFormatter.UnitDisplay unitDisplay) throws JSRangeErrorException {
+    if (mStyle == UNIT) {
+      MeasureUnit measureUnit = PlatformNumberFormatterICU.parseUnit(unit);
+      mUnitStem = "measure-unit/" + measureUnit.getType() + "-" + measureUnit.getSubtype();
+
+      switch (unitDisplay) {
+        case NARROW:
+          mUnitWidthStem = "unit-width-narrow";
+          break;
+        case LONG:
+          mUnitWidthStem = "unit-width-full-name";
+          break;
+        default:
+          mUnitWidthStem = "unit-width-short";
+          break;
+      }
+    }
+
+    return this;
+  }
+
+  private String getSkeleton() {
+    StringBuilder skeleton = new StringBuilder("rounding-mode-half-up");
+    for (String stem :
+        new String[] {
+          mNotationStem,
+          mUnitStem,
+          mUnitWidthStem,
+          mGroupingStem,
+          mIntegerWidthStem,
+          mPrecisionStem,
+          mSignStem
+        }) {
+      if (!stem.isEmpty()) skeleton.append(' ').append(stem);
+    }
+    return skeleton.toString();
+  }
+
+  // Builds the formatter once all the setters have run. Returns false if ICU can't express the
+  // resolved options as a skeleton, in which case NumberFormat falls back to
+  // PlatformNumberFormatterICU rather than failing.
+  boolean buildFormatter() {
+    String skeleton = getSkeleton();
+    String key = mLocaleObject.toCanonicalTag() + '\u0000' + skeleton;
+    LocalizedNumberFormatter formatter = sFormatterCache.get(key);
+    if (formatter == null) {
+      try {
+        formatter = NumberFormatter.forSkeleton(skeleton).locale(mLocaleObject.getLocale());
+      } catch (IllegalArgumentException ex) {
+        return false;
+      }
+      if (sFormatterCache.size() < FORMATTER_CACHE_MAX_SIZE) sFormatterCache.put(key, formatter);
+    }
+
+    mFormatter = formatter;
+    return true;
+  }
+
+  @Override
+  public String format(double n) throws JSRangeErrorException {
+    return mFormatter.format(n).toString();
+  }
+
+  @Override
+  public String fieldToString(AttributedCharacterIterator.Attribute attribute, double x) {
+    return PlatformNumberFormatterICU.fieldToPartType(attribute, x);
+  }
+
+  @Override
+  public AttributedCharacterIterator formatToParts(double n) throws JSRangeErrorException {
+    return mFormatter.format(n).toCharacterIterator();
+  }
+
+  @Override
+  public String[] getAvailableLocales() {
+    return AvailableLocaleIndex.getICULocaleIndex().toArray();
+  }
+
+  @Override
+  public String getDefaultNumberingSystem(ILocaleObject<?> localeObject)
+      throws JSRangeErrorException {
+    return NumberingSystem.getInstance((ULocale) localeObject.getLocale()).getName();
+  }
+}
@@ -24,6 +24,9 @@ import androidx.annotation.RequiresApi;
 import java.math.BigDecimal;
 import java.text.AttributedCharacterIterator;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 // An implementation of NumberFormat services using ICU4J APIs available in Android from API 24
 // onwards.
@@ -179,16 +182,40 @@ public class PlatformNumberFormatterICU implements IPlatformNumberFormatter {
     return this;
   }
 
+  // Maps unit identifiers to ICU units. A unit is reachable both by its subtype (e.g.
+  // "kilometer-per-hour") and by its subtype with the type prefix removed (e.g. "acre" for the
+  // "area-acre" subtype). When several units claim the same identifier, the first one in
+  // MeasureUnit.getAvailable() order wins, as it did with the linear scan this replaces.
+  //
+  // The holder class is only initialized on first use, so the hundreds of available units are
+  // walked once per process instead of once per unit-style formatter.
   @RequiresApi(api = Build.VERSION_CODES.N)
-  private static MeasureUnit parseUnit(String inUnit) throws JSRangeErrorException {
+  private static class MeasureUnitIndexHolder {
+    static final Map<String, MeasureUnit> UNITS = buildIndex();
+
+    private static Map<String, MeasureUnit> buildIndex() {
+      HashMap<String, MeasureUnit> units = new HashMap<>();
+      for (MeasureUnit unit : MeasureUnit.getAvailable()) {
+        String subtype = unit.getSubtype();
+        if (!units.containsKey(subtype)) units.put(subtype, unit);
+
+        String typePrefix = unit.getType() + "-";
+        if (subtype.startsWith(typePrefix)) {
+          String unprefixedSubtype = subtype.substring(typePrefix.length());
+          if (!units.containsKey(unprefixedSubtype)) units.put(unprefixedSubtype, unit);
+        }
+      }
+      return Collections.unmodifiableMap(units);
+    }
+  }
+
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  static MeasureUnit parseUnit(String inUnit) throws JSRangeErrorException {
 
     // http://unicode.org/reports/tr35/tr35-general.html#Unit_Identifiers
     // Only core identifiers will be input
-    for (MeasureUnit unit : MeasureUnit.getAvailable()) {
-
-      if (unit.getSubtype().equals(inUnit)
-          || unit.getSubtype().equals(unit.getType() + "-" + inUnit)) return unit;
-    }
+    MeasureUnit unit = MeasureUnitIndexHolder.UNITS.get(inUnit);
+    if (unit != null) return unit;
 
     throw new JSRangeErrorException("Unknown unit: " + inUnit);
   }
@@ -235,6 +262,12 @@ public class PlatformNumberFormatterICU implements IPlatformNumberFormatter {
   @RequiresApi(api = Build.VERSION_CODES.N)
   @Override
   public String fieldToString(AttributedCharacterIterator.Attribute attribute, double x) {
+    return fieldToPartType(attribute, x);
+  }
+
+  // Shared with PlatformLocalizedNumberFormatterICU, whose formatted values report the same fields.
+  @RequiresApi(api = Build.VERSION_CODES.N)
+  static String fieldToPartType(AttributedCharacterIterator.Attribute attribute, double x) {
     if (attribute == NumberFormat.Field.SIGN) {
       if (Double.compare(x, +0) >= 0) {
         return "plusSign";
@@ -389,8 +422,6 @@ public class PlatformNumberFormatterICU implements IPlatformNumberFormatter {
   @RequiresApi(api = Build.VERSION_CODES.N)
   @Override
   public String[] getAvailableLocales() {
-    ArrayList<String> availableLocaleIds = new ArrayList<>();
-
     // NumberFormat.getAvailableLocales() returns a shorter list compared to
     // ULocale.getAvailableLocales.
     // For e.g. "zh-TW" is missing in the list returned by NumberFormat.getAvailableLocales() in my
@@ -399,16 +430,7 @@ public class PlatformNumberFormatterICU implements IPlatformNumberFormatter {
     // to be formatted as "非數值" in "zh-TW" by as "NaN" in "zh"
     // In short, NumberFormat.getAvailableLocales() doesn't contain all the locales as the
     // NumberFormat can format. Hence, using ULocale.getAvailableLocales()
-    //
-    // java.util.Locale[] availableLocales = NumberFormat.getAvailableLocales();
-    android.icu.util.ULocale[] availableLocales = ULocale.getAvailableLocales();
-
-    for (android.icu.util.ULocale locale : availableLocales) {
-      availableLocaleIds.add(locale.toLanguageTag()); // TODO:: Not available on platforms <= 20
-    }
-
-    String[] availableLocaleIdsArray = new String[availableLocaleIds.size()];
-    return availableLocaleIds.toArray(availableLocaleIdsArray);
+    return AvailableLocaleIndex.getICULocaleIndex().toArray();
   }
 
   @RequiresApi(api = Build.VERSION_CODES.N)
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.hermes.intl;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// A process-wide pool of fully configured ICU objects, keyed by a string describing their resolved
+// configuration.
+//
+// Intl objects with identical resolved settings are common, often across several runtimes, and
+// creating and configuring the underlying ICU object is the expensive part of constructing them.
+// Objects in the pool are never used directly for formatting or comparison: they are either frozen,
+// and hence safe to share between threads, or only used as prototypes to clone from.
+class PrototypePool<T> {
+  private final int mMaxSize;
+  private final ConcurrentHashMap<String, T> mPrototypes = new ConcurrentHashMap<>();
+
+  PrototypePool(int maxSize) {
+    mMaxSize = maxSize;
+  }
+
+  // Returns the prototype registered for key, or null.
+  T get(String key) {
+    return mPrototypes.get(key);
+  }
+
+  // Registers prototype for key, unless one is already registered, and returns the registered one.
+  // The keys come from user code, so the pool stops accepting new entries once it is full, in which
+  // case prototype is returned as is.
+  T register(String key, T prototype) {
+    if (mPrototypes.size() >= mMaxSize) return prototype;
+
+    T existing = mPrototypes.putIfAbsent(key, prototype);
+    return existing != null ? existing : prototype;
+  }
+}
@@ -18,16 +18,6 @@ using namespace facebook::jni;
 
 namespace {
 
-void copyStringTo(
-    JNIEnv *env,
-    local_ref<jstring> jstr,
-    llvh::SmallVectorImpl<char16_t> &buf) {
-  jsize len = env->GetStringLength(jstr.get());
-  const jchar *chr = env->GetStringChars(jstr.get(), nullptr);
-  buf.assign(chr, chr + len);
-  env->ReleaseStringChars(jstr.get(), chr);
-}
-
 /// Converts a SmallVector of char16_t into a Java \c String.
 /// \p env The JNI environment to create the string in.
 /// \p str The string to copy into the Java Heap.
@@ -83,52 +73,105 @@ class JAndroidUnicodeUtils
       bool formatDate,
       bool formatTime,
       llvh::SmallVectorImpl<char16_t> &buf) noexcept {
-    const auto env = facebook::jni::Environment::current();
+    static_assert(
+        sizeof(jchar) == sizeof(char16_t),
+        "UTF16 char not the same size as Java char.");
     static const auto jDateFormat =
         javaClassStatic()
-            ->getStaticMethod<jstring(jdouble, jboolean, jboolean)>(
+            ->getStaticMethod<jint(
+                jdouble, jboolean, jboolean, alias_ref<JArrayChar>)>(
                 "dateFormat");
-    local_ref<jstring> javaFormattedDate =
-        jDateFormat(javaClassStatic(), unixtimeMs, formatDate, formatTime);
 
-    FACEBOOK_JNI_THROW_PENDING_EXCEPTION();
-
-    jsize len = env->GetStringLength(javaFormattedDate.get());
-    const jchar *chr = env->GetStringChars(javaFormattedDate.get(), nullptr);
-    buf.append(chr, chr + len);
-    env->ReleaseStringChars(javaFormattedDate.get(), chr);
+    // Format into the scratch buffer, rather than through a Java String,
+    // and copy the result straight into buf.  Formatted dates are short,
+    // so the retry with a larger buffer should never be needed.
+    local_ref<JArrayChar> scratch = getScratchBuffer(0);
+    size_t len = jDateFormat(
+        javaClassStatic(), unixtimeMs, formatDate, formatTime, scratch);
+    abortOnJavaException();
+    if (len > scratch->size()) {
+      scratch = getScratchBuffer(len);
+      len = jDateFormat(
+          javaClassStatic(), unixtimeMs, formatDate, formatTime, scratch);
+      abortOnJavaException();
+    }
+
+    size_t start = buf.size();
+    buf.resize(start + len);
+    scratch->getRegion(0, len, reinterpret_cast<jchar *>(buf.data() + start));
   }
 
   static void convertToCase(
       llvh::SmallVectorImpl<char16_t> &buf,
       CaseConversion targetCase,
       bool useCurrentLocale) noexcept {
-    const auto env = facebook::jni::Environment::current();
     static const auto jConvertCase =
-        javaClassStatic()->getStaticMethod<jstring(jstring, int, jboolean)>(
-            "convertToCase");
-    auto jInput = toJavaString(env, buf);
+        javaClassStatic()
+            ->getStaticMethod<jint(
+                alias_ref<JArrayChar>, jint, jint, jboolean)>("convertToCase");
     int targetCaseInt = static_cast<int>(targetCase);
-    local_ref<jstring> javaConvertedCase = jConvertCase(
-        javaClassStatic(), jInput.get(), targetCaseInt, useCurrentLocale);
-
-    abortOnJavaException();
-    copyStringTo(env, javaConvertedCase, buf);
+    transformInScratch(buf, [&](alias_ref<JArrayChar> scratch) {
+      return jConvertCase(
+          javaClassStatic(),
+          scratch,
+          buf.size(),
+          targetCaseInt,
+          useCurrentLocale);
+    });
   }
 
   static void normalize(
       llvh::SmallVectorImpl<char16_t> &buf,
       NormalizationForm form) noexcept {
-    const auto env = facebook::jni::Environment::current();
     static const auto jNormalize =
-        javaClassStatic()->getStaticMethod<jstring(jstring, int)>("normalize");
-    auto jInput = toJavaString(env, buf);
+        javaClassStatic()
+            ->getStaticMethod<jint(alias_ref<JArrayChar>, jint, jint)>(
+                "normalize");
     int formInt = static_cast<int>(form);
-    local_ref<jstring> javaNormalized =
-        jNormalize(javaClassStatic(), jInput.get(), formInt);
+    transformInScratch(buf, [&](alias_ref<JArrayChar> scratch) {
+      return jNormalize(javaClassStatic(), scratch, buf.size(), formInt);
+    });
+  }
+
+ private:
+  /// \return the char array Java keeps for this thread, grown to hold at
+  /// least \p size chars.  The array is owned by a Java ThreadLocal, so
+  /// it is released along with the thread without native code holding a
+  /// global reference to it.
+  static local_ref<JArrayChar> getScratchBuffer(size_t size) noexcept {
+    static const auto jGetScratchBuffer =
+        javaClassStatic()->getStaticMethod<local_ref<JArrayChar>(jint)>(
+            "getScratchBuffer");
+    return jGetScratchBuffer(javaClassStatic(), size);
+  }
 
+  /// Transform \p buf in place with \p transform, which calls a Java
+  /// method that transforms the first buf.size() chars of the array it is
+  /// given, and returns the length of the result.  A result which doesn't
+  /// fit is not written to the array, so the transformation is retried
+  /// with an array large enough for it.
+  template <typename Transform>
+  static void transformInScratch(
+      llvh::SmallVectorImpl<char16_t> &buf,
+      Transform transform) noexcept {
+    static_assert(
+        sizeof(jchar) == sizeof(char16_t),
+        "UTF16 char not the same size as Java char.");
+    local_ref<JArrayChar> scratch = getScratchBuffer(buf.size());
+    scratch->setRegion(
+        0, buf.size(), reinterpret_cast<const jchar *>(buf.data()));
+    size_t len = transform(scratch);
     abortOnJavaException();
-    copyStringTo(env, javaNormalized, buf);
+    if (len > scratch->size()) {
+      scratch = getScratchBuffer(len);
+      scratch->setRegion(
+          0, buf.size(), reinterpret_cast<const jchar *>(buf.data()));
+      len = transform(scratch);
+      abortOnJavaException();
+    }
+
+    buf.resize(len);
+    scratch->getRegion(0, len, reinterpret_cast<jchar *>(buf.data()));
   }
 };
 
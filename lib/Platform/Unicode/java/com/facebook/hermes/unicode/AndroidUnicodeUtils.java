@@ -7,36 +7,152 @@
 
 package com.facebook.hermes.unicode;
 
+import android.os.Build;
 import com.facebook.proguard.annotations.DoNotStrip;
+import java.nio.CharBuffer;
 import java.text.Collator;
 import java.text.DateFormat;
+import java.text.FieldPosition;
 import java.text.Normalizer;
+import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 
 // TODO: use com.facebook.common.locale.Locales.getApplicationLocale() as the current locale,
 // rather than the device locale. This is challenging because getApplicationLocale() is only
 // available via DI.
 @DoNotStrip
 public class AndroidUnicodeUtils {
+  // Collator.getInstance() clones a collator for the default locale on every call, which dominates
+  // the cost of a comparison. Collators aren't thread safe, so each thread keeps its own, and
+  // rebuilds it only when the default locale changes.
+  private static class CachedCollator {
+    final Locale locale;
+    final Collator collator;
+
+    CachedCollator(Locale locale) {
+      this.locale = locale;
+      this.collator = Collator.getInstance(locale);
+    }
+  }
+
+  private static final ThreadLocal<CachedCollator> sCollator = new ThreadLocal<>();
+
+  private static Collator getCollator() {
+    Locale locale = Locale.getDefault();
+    CachedCollator cached = sCollator.get();
+    if (cached == null || !cached.locale.equals(locale)) {
+      cached = new CachedCollator(locale);
+      sCollator.set(cached);
+    }
+    return cached.collator;
+  }
+
   @DoNotStrip
   public static int localeCompare(String left, String right) {
-    Collator collator = Collator.getInstance();
-    return collator.compare(left, right);
+    return getCollator().compare(left, right);
   }
 
-  @DoNotStrip
-  public static String dateFormat(double unixtimeMs, boolean formatDate, boolean formatTime) {
+  // Like collators, date formats are expensive to create and not thread safe. Each thread keeps
+  // the three formats used by dateFormat for the default locale and time zone they were created
+  // with, creating each one on first use, along with the objects reused by every call to format.
+  private static class CachedDateFormats {
+    final Locale locale;
+    final String timeZoneId;
+    DateFormat dateTime;
+    DateFormat date;
+    DateFormat time;
+    final Date scratchDate = new Date();
+    final StringBuffer result = new StringBuffer();
+    final FieldPosition fieldPosition = new FieldPosition(0);
+
+    CachedDateFormats(Locale locale, String timeZoneId) {
+      this.locale = locale;
+      this.timeZoneId = timeZoneId;
+    }
+  }
+
+  private static final ThreadLocal<CachedDateFormats> sDateFormats = new ThreadLocal<>();
+
+  private static CachedDateFormats getDateFormats() {
+    // DateFormat.getDateTimeInstance() and friends use the FORMAT category of the default locale,
+    // which isn't available before API 24.
+    Locale locale =
+        Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+            ? Locale.getDefault(Locale.Category.FORMAT)
+            : Locale.getDefault();
+    String timeZoneId = TimeZone.getDefault().getID();
+    CachedDateFormats cached = sDateFormats.get();
+    if (cached == null
+        || !cached.locale.equals(locale)
+        || !cached.timeZoneId.equals(timeZoneId)) {
+      cached = new CachedDateFormats(locale, timeZoneId);
+      sDateFormats.set(cached);
+    }
+    return cached;
+  }
+
+  // Formats unixtimeMs into the result buffer of the current thread, and returns that buffer.
+  private static StringBuffer formatToBuffer(
+      double unixtimeMs, boolean formatDate, boolean formatTime) {
+    CachedDateFormats formats = getDateFormats();
     DateFormat format;
     if (formatDate && formatTime) {
-      format = DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.MEDIUM);
+      if (formats.dateTime == null) {
+        formats.dateTime =
+            DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.MEDIUM, formats.locale);
+      }
+      format = formats.dateTime;
     } else if (formatDate) {
-      format = DateFormat.getDateInstance(DateFormat.MEDIUM);
+      if (formats.date == null) {
+        formats.date = DateFormat.getDateInstance(DateFormat.MEDIUM, formats.locale);
+      }
+      format = formats.date;
     } else if (formatTime) {
-      format = DateFormat.getTimeInstance(DateFormat.MEDIUM);
+      if (formats.time == null) {
+        formats.time = DateFormat.getTimeInstance(DateFormat.MEDIUM, formats.locale);
+      }
+      format = formats.time;
     } else {
       throw new RuntimeException("Bad dateFormat configuration");
     }
-    return format.format((long) unixtimeMs).toString();
+
+    formats.scratchDate.setTime((long) unixtimeMs);
+    formats.result.setLength(0);
+    return format.format(formats.scratchDate, formats.result, formats.fieldPosition);
+  }
+
+  @DoNotStrip
+  public static String dateFormat(double unixtimeMs, boolean formatDate, boolean formatTime) {
+    return formatToBuffer(unixtimeMs, formatDate, formatTime).toString();
+  }
+
+  // Same as above, copying the result into buffer instead of creating a String. Returns the length
+  // of the result; as with copyResult, nothing is copied if it doesn't fit.
+  @DoNotStrip
+  public static int dateFormat(
+      double unixtimeMs, boolean formatDate, boolean formatTime, char[] buffer) {
+    StringBuffer result = formatToBuffer(unixtimeMs, formatDate, formatTime);
+    int length = result.length();
+    if (length <= buffer.length) result.getChars(0, length, buffer, 0);
+    return length;
+  }
+
+  // Native code copies strings into this buffer for the in place transformations below, rather
+  // than creating a Java String for each of them. Each thread has its own, kept in a ThreadLocal so
+  // it's freed with the thread.
+  private static final ThreadLocal<char[]> sScratchBuffer = new ThreadLocal<>();
+
+  // Returns the scratch buffer of the current thread, grown to hold at least minLength chars.
+  @DoNotStrip
+  public static char[] getScratchBuffer(int minLength) {
+    char[] buffer = sScratchBuffer.get();
+    if (buffer == null || buffer.length < minLength) {
+      int length = buffer == null ? 256 : buffer.length * 2;
+      buffer = new char[Math.max(length, minLength)];
+      sScratchBuffer.set(buffer);
+    }
+    return buffer;
   }
 
   @DoNotStrip
@@ -58,8 +174,32 @@ public class AndroidUnicodeUtils {
     }
   }
 
+  // Same as above, converting the first length chars of buffer in place. Returns the length of
+  // the result, see copyResult. This saves native code from creating a Java String for the input
+  // and reading back the characters of one for the result, but the conversion itself still goes
+  // through Strings, as Java has no case conversion for char arrays.
+  @DoNotStrip
+  public static int convertToCase(
+      char[] buffer, int length, int targetCase, boolean useCurrentLocale) {
+    return copyResult(
+        convertToCase(new String(buffer, 0, length), targetCase, useCurrentLocale), buffer);
+  }
+
   @DoNotStrip
   public static String normalize(String input, int form) {
+    return Normalizer.normalize(input, getNormalizerForm(form));
+  }
+
+  // Same as above, normalizing the first length chars of buffer in place. Returns the length of
+  // the result, see copyResult. The input is read through a CharBuffer, so no String is created for
+  // it; the Normalizer still returns the result as a String.
+  @DoNotStrip
+  public static int normalize(char[] buffer, int length, int form) {
+    return copyResult(
+        Normalizer.normalize(CharBuffer.wrap(buffer, 0, length), getNormalizerForm(form)), buffer);
+  }
+
+  private static Normalizer.Form getNormalizerForm(int form) {
     // Values must match NormalizationForm in PlatformUnicode.h.
     final int formC = 0;
     final int formD = 1;
@@ -68,15 +208,24 @@ public class AndroidUnicodeUtils {
 
     switch (form) {
       case formC:
-        return Normalizer.normalize(input, Normalizer.Form.NFC);
+        return Normalizer.Form.NFC;
       case formD:
-        return Normalizer.normalize(input, Normalizer.Form.NFD);
+        return Normalizer.Form.NFD;
       case formKC:
-        return Normalizer.normalize(input, Normalizer.Form.NFKC);
+        return Normalizer.Form.NFKC;
       case formKD:
-        return Normalizer.normalize(input, Normalizer.Form.NFKD);
+        return Normalizer.Form.NFKD;
       default:
         throw new RuntimeException("Invalid form");
     }
   }
+
+  // Copies result to the start of buffer, if it fits, and returns its length either way. The
+  // buffer is left untouched if the length is larger than the buffer, in which case the caller
+  // should retry with a buffer at least that large.
+  private static int copyResult(String result, char[] buffer) {
+    int length = result.length();
+    if (length <= buffer.length) result.getChars(0, length, buffer, 0);
+    return length;
+  }
 }
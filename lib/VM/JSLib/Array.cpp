@@ -462,6 +462,13 @@ arrayPrototypeToLocaleString(void *, Runtime &runtime, NativeArgs args) {
   // Index into the array.
   MutableHandle<> i{runtime, HermesValue::encodeTrustedNumberValue(0)};
 
+#ifdef HERMES_ENABLE_INTL
+  // Formats Number and Date elements with one formatter for the whole
+  // array, instead of one per element.
+  IntlElementFormatter intlFormatter{
+      runtime, args.getArgHandle(0), args.getArgHandle(1)};
+#endif
+
   auto marker = gcScope.createMarker();
   while (i->getNumber() < len) {
     gcScope.flushToMarker(marker);
@@ -498,12 +505,22 @@ arrayPrototypeToLocaleString(void *, Runtime &runtime, NativeArgs args) {
         // 402, two arguments (locales and options), if provided, are
         // passed on from this function to the element's
         // "toLocaleString" method.
-        auto callRes =
 #ifdef HERMES_ENABLE_INTL
-            Callable::executeCall2(
-                func, runtime, elementObj, args.getArg(0), args.getArg(1));
+        auto callRes = intlFormatter.tryFormat(elementObj, func);
+        if (LLVM_UNLIKELY(callRes == ExecutionStatus::EXCEPTION)) {
+          return ExecutionStatus::EXCEPTION;
+        }
+        if (callRes->isEmpty()) {
+          callRes = Callable::executeCall2(
+                        func,
+                        runtime,
+                        elementObj,
+                        args.getArg(0),
+                        args.getArg(1))
+                        .toCallResultHermesValue();
+        }
 #else
-            Callable::executeCall0(func, runtime, elementObj);
+        auto callRes = Callable::executeCall0(func, runtime, elementObj);
 #endif
         if (LLVM_UNLIKELY(callRes == ExecutionStatus::EXCEPTION)) {
           return ExecutionStatus::EXCEPTION;
@@ -1421,6 +1438,141 @@ CallResult<HermesValue> sortSparse(
 
   return O.getHermesValue();
 }
+
+#ifdef HERMES_ENABLE_INTL
+/// Sort model over precomputed collation keys, used when an array of strings
+/// is sorted with the compare function of an Intl.Collator.  The keys order
+/// the strings exactly as the collator compares them, so running quickSort
+/// with this model performs the same swaps as StandardSortModel would, without
+/// calling back into the collator for every comparison.
+class CollationKeySortModel : public SortModel {
+ private:
+  /// The keys of all elements, packed back to back.
+  const std::vector<uint8_t> &keys_;
+
+  /// The offset just past the key of each element, by original index.
+  const std::vector<uint32_t> &ends_;
+
+  /// The original index of the element currently at each position.
+  std::vector<uint32_t> &order_;
+
+  llvh::ArrayRef<uint8_t> getKey(uint32_t index) const {
+    uint32_t begin = index == 0 ? 0 : ends_[index - 1];
+    return llvh::ArrayRef<uint8_t>(keys_.data() + begin, ends_[index] - begin);
+  }
+
+ public:
+  CollationKeySortModel(
+      const std::vector<uint8_t> &keys,
+      const std::vector<uint32_t> &ends,
+      std::vector<uint32_t> &order)
+      : keys_(keys), ends_(ends), order_(order) {}
+
+  ExecutionStatus swap(uint32_t a, uint32_t b) override {
+    std::swap(order_[a], order_[b]);
+    return ExecutionStatus::RETURNED;
+  }
+
+  CallResult<int> compare(uint32_t a, uint32_t b) override {
+    llvh::ArrayRef<uint8_t> aKey = getKey(order_[a]);
+    llvh::ArrayRef<uint8_t> bKey = getKey(order_[b]);
+    size_t n = std::min(aKey.size(), bKey.size());
+    int res = n ? memcmp(aKey.data(), bKey.data(), n) : 0;
+    if (res != 0) {
+      return res < 0 ? -1 : 1;
+    }
+    // A key orders before any longer key it is a prefix of.
+    return aKey.size() < bKey.size() ? -1 : (aKey.size() > bKey.size() ? 1 : 0);
+  }
+};
+
+/// If \p compareFn is the compare function of an Intl.Collator, and the first
+/// \p len elements of \p O are all strings stored in a plain writable array,
+/// sort them by collation keys fetched from the platform in a single batch.
+/// Neither the collator compare function nor reading the elements can run
+/// user code, so the result is indistinguishable from the generic sort.
+/// \return false if the fast path doesn't apply, and \p O is unmodified.
+CallResult<bool> sortStringsByCollationKey(
+    Runtime &runtime,
+    Handle<JSObject> O,
+    Handle<Callable> compareFn,
+    uint64_t len) {
+  platform_intl::Collator *collator =
+      getIntlCollatorForCompare(runtime, *compareFn);
+  if (!collator || !collator->supportsSortKeys()) {
+    return false;
+  }
+
+  // Writing the sorted elements back must not fail or be observable, which
+  // holds for extensible (and hence neither sealed nor frozen) arrays whose
+  // elements live in indexed storage.
+  auto arr = Handle<JSArray>::dyn_vmcast(O);
+  if (!arr || !arr->isExtensible() || !arr->hasFastIndexProperties() ||
+      len < 2 || len > JSArray::getLength(*arr, runtime)) {
+    return false;
+  }
+
+  GCScope gcScope{runtime};
+  GCScopeMarkerRAII gcMarker{gcScope};
+
+  std::vector<std::u16string> strings;
+  strings.reserve(len);
+  for (uint32_t i = 0; i != len; ++i) {
+    gcMarker.flush();
+    // Holes read as empty, which also makes us bail out.
+    SmallHermesValue shv = arr->at(runtime, i);
+    if (!shv.isString()) {
+      return false;
+    }
+    auto view = StringPrimitive::createStringView(
+        runtime, runtime.makeHandle(shv.getString(runtime)));
+    strings.emplace_back(view.begin(), view.end());
+  }
+
+  std::vector<uint8_t> keys;
+  std::vector<uint32_t> ends;
+  if (!collator->getSortKeys(strings, keys, ends)) {
+    return false;
+  }
+  assert(ends.size() == len && "a sort key is needed for every string");
+  strings.clear();
+
+  std::vector<uint32_t> order(len);
+  for (uint32_t i = 0; i != len; ++i) {
+    order[i] = i;
+  }
+  CollationKeySortModel sm(keys, ends, order);
+  if (LLVM_UNLIKELY(quickSort(&sm, 0u, len) == ExecutionStatus::EXCEPTION)) {
+    return ExecutionStatus::EXCEPTION;
+  }
+
+  // Snapshot the elements, so they can be permuted in place.
+  auto crArray = JSArray::create(runtime, len, len);
+  if (LLVM_UNLIKELY(crArray == ExecutionStatus::EXCEPTION)) {
+    return ExecutionStatus::EXCEPTION;
+  }
+  auto elements = *crArray;
+  if (LLVM_UNLIKELY(
+          JSArray::setStorageEndIndex(elements, runtime, len) ==
+          ExecutionStatus::EXCEPTION)) {
+    return ExecutionStatus::EXCEPTION;
+  }
+  for (uint32_t i = 0; i != len; ++i) {
+    JSArray::unsafeSetExistingElementAt(
+        *elements, runtime, i, arr->at(runtime, i));
+  }
+
+  for (uint32_t i = 0; i != len; ++i) {
+    gcMarker.flush();
+    if (order[i] != i) {
+      JSArray::setElementAt(
+          arr, runtime, i, elements->handleAt(runtime, order[i]));
+    }
+  }
+
+  return true;
+}
+#endif
 } // anonymous namespace
 
 /// ES5.1 15.4.4.11.
@@ -1455,6 +1607,21 @@ arrayPrototypeSort(void *, Runtime &runtime, NativeArgs args) {
   if (!O->isProxyObject() && !O->isHostObject() && !O->hasFastIndexProperties())
     return sortSparse(runtime, O, compareFn, len);
 
+#ifdef HERMES_ENABLE_INTL
+  // Sorting strings with the compare function of an Intl.Collator calls into
+  // the platform collator for every comparison.  Sort by collation keys
+  // instead, if possible.
+  if (compareFn) {
+    auto sortedRes = sortStringsByCollationKey(runtime, O, compareFn, len);
+    if (LLVM_UNLIKELY(sortedRes == ExecutionStatus::EXCEPTION)) {
+      return ExecutionStatus::EXCEPTION;
+    }
+    if (*sortedRes) {
+      return O.getHermesValue();
+    }
+  }
+#endif
+
   // This is the "fast" path. We are sorting an array with indexed storage.
   StandardSortModel sm(runtime, O, compareFn);
 
@@ -117,7 +117,7 @@ CallResult<HermesValue> optionsToJS(
 
 CallResult<Handle<JSObject>> partToJS(
     Runtime &runtime,
-    std::unordered_map<std::u16string, std::u16string> result) {
+    platform_intl::Part part) {
   CallResult<PseudoHandle<JSObject>> objRes = JSObject::create(runtime);
   if (LLVM_UNLIKELY(objRes == ExecutionStatus::EXCEPTION)) {
     return ExecutionStatus::EXCEPTION;
@@ -126,17 +126,19 @@ CallResult<Handle<JSObject>> partToJS(
   MutableHandle<> key{runtime};
   MutableHandle<> value{runtime};
   GCScopeMarkerRAII marker{runtime};
-  for (auto &kv : result) {
+  std::pair<const char16_t *, std::u16string *> fields[] = {
+      {u"type", &part.type}, {u"value", &part.value}};
+  for (auto &field : fields) {
     marker.flush();
 
-    CallResult<HermesValue> keyRes = StringPrimitive::createEfficient(
-        runtime, createUTF16Ref(kv.first.c_str()));
+    CallResult<HermesValue> keyRes =
+        StringPrimitive::createEfficient(runtime, createUTF16Ref(field.first));
     if (LLVM_UNLIKELY(keyRes == ExecutionStatus::EXCEPTION)) {
       return ExecutionStatus::EXCEPTION;
     }
     key = *keyRes;
     CallResult<HermesValue> valueRes =
-        StringPrimitive::createEfficient(runtime, std::move(kv.second));
+        StringPrimitive::createEfficient(runtime, std::move(*field.second));
     if (LLVM_UNLIKELY(valueRes == ExecutionStatus::EXCEPTION)) {
       return ExecutionStatus::EXCEPTION;
     }
@@ -154,8 +156,7 @@ CallResult<Handle<JSObject>> partToJS(
 
 CallResult<HermesValue> partsToJS(
     Runtime &runtime,
-    CallResult<std::vector<std::unordered_map<std::u16string, std::u16string>>>
-        result) {
+    CallResult<std::vector<platform_intl::Part>> result) {
   if (LLVM_UNLIKELY(result == ExecutionStatus::EXCEPTION)) {
     return ExecutionStatus::EXCEPTION;
   }
@@ -749,6 +750,19 @@ intlCollatorCompare(void *, Runtime &runtime, NativeArgs args) {
       collator->compare(*xRes, *yRes));
 }
 
+platform_intl::Collator *getIntlCollatorForCompare(
+    Runtime &runtime,
+    Callable *func) {
+  auto *nf = dyn_vmcast<NativeFunction>(func);
+  if (!nf || nf->getFunctionPtr() != intlCollatorCompare) {
+    return nullptr;
+  }
+  PseudoHandle<DecoratedObject> collatorHandle =
+      getCollator(createPseudoHandle(nf), runtime);
+  return static_cast<platform_intl::Collator *>(
+      collatorHandle->getDecoration());
+}
+
 CallResult<HermesValue>
 intlCollatorPrototypeCompareGetter(void *, Runtime &runtime, NativeArgs args) {
   Handle<DecoratedObject> collatorHandle = args.dyncastThis<DecoratedObject>();
@@ -1451,6 +1465,57 @@ ExecutionStatus toDateTimeOptions(
   return ExecutionStatus::RETURNED;
 }
 
+/// Create the DateTimeFormat used by the Date.prototype.toLocale*String
+/// methods selected by \p dtoFlags.
+CallResult<std::unique_ptr<platform_intl::DateTimeFormat>>
+createToLocaleStringDateTimeFormat(
+    Runtime &runtime,
+    Handle<> locales,
+    Handle<> options,
+    int dtoFlags) {
+  CallResult<std::vector<std::u16string>> localesRes =
+      normalizeLocales(runtime, locales);
+  if (LLVM_UNLIKELY(localesRes == ExecutionStatus::EXCEPTION)) {
+    return ExecutionStatus::EXCEPTION;
+  }
+
+  CallResult<platform_intl::Options> optionsRes =
+      normalizeOptions(runtime, options, kDTFOptions);
+  if (LLVM_UNLIKELY(optionsRes == ExecutionStatus::EXCEPTION)) {
+    return ExecutionStatus::EXCEPTION;
+  }
+
+  if (LLVM_UNLIKELY(
+          toDateTimeOptions(runtime, *optionsRes, dtoFlags) ==
+          ExecutionStatus::EXCEPTION)) {
+    return ExecutionStatus::EXCEPTION;
+  }
+
+  return platform_intl::DateTimeFormat::create(
+      runtime, *localesRes, *optionsRes);
+}
+
+/// Create the NumberFormat used by Number.prototype.toLocaleString.
+CallResult<std::unique_ptr<platform_intl::NumberFormat>>
+createToLocaleStringNumberFormat(
+    Runtime &runtime,
+    Handle<> locales,
+    Handle<> options) {
+  CallResult<std::vector<std::u16string>> localesRes =
+      normalizeLocales(runtime, locales);
+  if (LLVM_UNLIKELY(localesRes == ExecutionStatus::EXCEPTION)) {
+    return ExecutionStatus::EXCEPTION;
+  }
+  CallResult<platform_intl::Options> optionsRes =
+      normalizeOptions(runtime, options, kNumberFormatOptions);
+  if (LLVM_UNLIKELY(optionsRes == ExecutionStatus::EXCEPTION)) {
+    return ExecutionStatus::EXCEPTION;
+  }
+
+  return platform_intl::NumberFormat::create(
+      runtime, *localesRes, *optionsRes);
+}
+
 CallResult<HermesValue> intlDatePrototypeToSomeLocaleString(
     Runtime &runtime,
     const NativeArgs &args,
@@ -1461,27 +1526,9 @@ CallResult<HermesValue> intlDatePrototypeToSomeLocaleString(
   if (std::isnan(x)) {
     str = u"Invalid Date";
   } else {
-    CallResult<std::vector<std::u16string>> localesRes =
-        normalizeLocales(runtime, args.getArgHandle(0));
-    if (LLVM_UNLIKELY(localesRes == ExecutionStatus::EXCEPTION)) {
-      return ExecutionStatus::EXCEPTION;
-    }
-
-    CallResult<platform_intl::Options> optionsRes =
-        normalizeOptions(runtime, args.getArgHandle(1), kDTFOptions);
-    if (LLVM_UNLIKELY(optionsRes == ExecutionStatus::EXCEPTION)) {
-      return ExecutionStatus::EXCEPTION;
-    }
-
-    if (LLVM_UNLIKELY(
-            toDateTimeOptions(runtime, *optionsRes, dtoFlags) ==
-            ExecutionStatus::EXCEPTION)) {
-      return ExecutionStatus::EXCEPTION;
-    }
-
     CallResult<std::unique_ptr<platform_intl::DateTimeFormat>> dtfRes =
-        platform_intl::DateTimeFormat::create(
-            runtime, *localesRes, *optionsRes);
+        createToLocaleStringDateTimeFormat(
+            runtime, args.getArgHandle(0), args.getArgHandle(1), dtoFlags);
     if (LLVM_UNLIKELY(dtfRes == ExecutionStatus::EXCEPTION)) {
       return ExecutionStatus::EXCEPTION;
     }
@@ -1542,23 +1589,112 @@ intlNumberPrototypeToLocaleString(void *, Runtime &runtime, NativeArgs args) {
     x = numPtr->getPrimitiveNumber();
   }
 
-  CallResult<std::vector<std::u16string>> localesRes =
-      normalizeLocales(runtime, args.getArgHandle(0));
-  if (LLVM_UNLIKELY(localesRes == ExecutionStatus::EXCEPTION)) {
+  CallResult<std::unique_ptr<platform_intl::NumberFormat>> nfRes =
+      createToLocaleStringNumberFormat(
+          runtime, args.getArgHandle(0), args.getArgHandle(1));
+  if (LLVM_UNLIKELY(nfRes == ExecutionStatus::EXCEPTION)) {
     return ExecutionStatus::EXCEPTION;
   }
-  CallResult<platform_intl::Options> optionsRes =
-      normalizeOptions(runtime, args.getArgHandle(1), kNumberFormatOptions);
-  if (LLVM_UNLIKELY(optionsRes == ExecutionStatus::EXCEPTION)) {
-    return ExecutionStatus::EXCEPTION;
+  return StringPrimitive::createEfficient(runtime, (*nfRes)->format(x));
+}
+
+// Since the shared formatters normalize the locales and options only
+// once, any getters on the options object run once per call of the
+// array method, rather than once per element.  As with the note in
+// PlatformIntl.h, this inconsistency is intentionally ignored.
+
+IntlElementFormatter::IntlElementFormatter(
+    Runtime &runtime,
+    Handle<> locales,
+    Handle<> options)
+    : runtime_(runtime), locales_(locales), options_(options) {}
+
+IntlElementFormatter::~IntlElementFormatter() = default;
+
+bool IntlElementFormatter::isNumberToLocaleString(Callable *func) {
+  auto *nf = dyn_vmcast<NativeFunction>(func);
+  return nf && nf->getFunctionPtr() == numberPrototypeToLocaleString;
+}
+
+bool IntlElementFormatter::isDateToLocaleString(Callable *func) {
+  auto *nf = dyn_vmcast<NativeFunction>(func);
+  // toLocaleString, toLocaleDateString and toLocaleTimeString share a
+  // native function, distinguished by a ToLocaleStringKind context.
+  // toLocaleString is DatetimeToLocaleString, which is zero.
+  return nf && nf->getFunctionPtr() == datePrototypeToLocaleStringHelper &&
+      nf->getContext() == nullptr;
+}
+
+CallResult<platform_intl::NumberFormat *>
+IntlElementFormatter::getNumberFormat() {
+  if (!numberFormat_) {
+    CallResult<std::unique_ptr<platform_intl::NumberFormat>> nfRes =
+        createToLocaleStringNumberFormat(runtime_, locales_, options_);
+    if (LLVM_UNLIKELY(nfRes == ExecutionStatus::EXCEPTION)) {
+      return ExecutionStatus::EXCEPTION;
+    }
+    numberFormat_ = std::move(*nfRes);
   }
+  return numberFormat_.get();
+}
 
-  CallResult<std::unique_ptr<platform_intl::NumberFormat>> nfRes =
-      platform_intl::NumberFormat::create(runtime, *localesRes, *optionsRes);
+CallResult<platform_intl::DateTimeFormat *>
+IntlElementFormatter::getDateTimeFormat() {
+  if (!dateTimeFormat_) {
+    CallResult<std::unique_ptr<platform_intl::DateTimeFormat>> dtfRes =
+        createToLocaleStringDateTimeFormat(
+            runtime_, locales_, options_, kDTODate | kDTOTime);
+    if (LLVM_UNLIKELY(dtfRes == ExecutionStatus::EXCEPTION)) {
+      return ExecutionStatus::EXCEPTION;
+    }
+    dateTimeFormat_ = std::move(*dtfRes);
+  }
+  return dateTimeFormat_.get();
+}
+
+CallResult<HermesValue> IntlElementFormatter::tryFormat(
+    Handle<JSObject> elementObj,
+    Handle<Callable> func) {
+  if (auto *num = dyn_vmcast<JSNumber>(*elementObj)) {
+    if (!isNumberToLocaleString(*func)) {
+      return HermesValue::encodeEmptyValue();
+    }
+    double x = num->getPrimitiveNumber();
+    CallResult<platform_intl::NumberFormat *> nfRes = getNumberFormat();
+    if (LLVM_UNLIKELY(nfRes == ExecutionStatus::EXCEPTION)) {
+      return ExecutionStatus::EXCEPTION;
+    }
+    return StringPrimitive::createEfficient(runtime_, (*nfRes)->format(x));
+  }
+
+  if (auto *date = dyn_vmcast<JSDate>(*elementObj)) {
+    if (!isDateToLocaleString(*func)) {
+      return HermesValue::encodeEmptyValue();
+    }
+    double x = date->getPrimitiveValue();
+    // As in intlDatePrototypeToSomeLocaleString, an invalid date doesn't
+    // look at the locales or options at all.
+    if (std::isnan(x)) {
+      return StringPrimitive::createEfficient(
+          runtime_, std::u16string(u"Invalid Date"));
+    }
+    CallResult<platform_intl::DateTimeFormat *> dtfRes = getDateTimeFormat();
+    if (LLVM_UNLIKELY(dtfRes == ExecutionStatus::EXCEPTION)) {
+      return ExecutionStatus::EXCEPTION;
+    }
+    return StringPrimitive::createEfficient(runtime_, (*dtfRes)->format(x));
+  }
+
+  return HermesValue::encodeEmptyValue();
+}
+
+CallResult<std::vector<std::u16string>> IntlElementFormatter::formatNumbers(
+    llvh::ArrayRef<double> numbers) {
+  CallResult<platform_intl::NumberFormat *> nfRes = getNumberFormat();
   if (LLVM_UNLIKELY(nfRes == ExecutionStatus::EXCEPTION)) {
     return ExecutionStatus::EXCEPTION;
   }
-  return StringPrimitive::createEfficient(runtime, (*nfRes)->format(x));
+  return (*nfRes)->formatMany(numbers);
 }
 
 CallResult<HermesValue>
@@ -18,6 +18,10 @@
 #include "hermes/VM/JSRegExp.h"
 #include "hermes/VM/JSWeakRef.h"
 
+#ifdef HERMES_ENABLE_INTL
+#include "hermes/Platform/Intl/PlatformIntl.h"
+#endif
+
 namespace hermes {
 namespace vm {
 
@@ -537,6 +541,57 @@ CallResult<HermesValue> addEntriesFromIterable(
       "loop must terminate with 'return' when iteration is complete");
 }
 
+#ifdef HERMES_ENABLE_INTL
+/// Formats the elements of Array.prototype.toLocaleString and
+/// %TypedArray%.prototype.toLocaleString.  Number and Date elements
+/// whose toLocaleString is the builtin are formatted with platform
+/// formatters shared by every element, rather than each call building
+/// its own.  The formatters are created on first use, from the locales
+/// and options passed to the builtin.
+class IntlElementFormatter {
+ public:
+  IntlElementFormatter(Runtime &runtime, Handle<> locales, Handle<> options);
+  ~IntlElementFormatter();
+
+  /// \return true if \p func is the builtin Number.prototype.toLocaleString.
+  static bool isNumberToLocaleString(Callable *func);
+
+  /// \return true if \p func is the builtin Date.prototype.toLocaleString.
+  static bool isDateToLocaleString(Callable *func);
+
+  /// If \p elementObj is a Number or Date, and \p func is the matching
+  /// builtin toLocaleString, format it with a shared formatter.
+  /// \return the formatted string, or an empty value if the element must
+  ///   be formatted by calling \p func.
+  CallResult<HermesValue> tryFormat(
+      Handle<JSObject> elementObj,
+      Handle<Callable> func);
+
+  /// Format every element of \p numbers with the shared number formatter,
+  /// as Number.prototype.toLocaleString would.
+  CallResult<std::vector<std::u16string>> formatNumbers(
+      llvh::ArrayRef<double> numbers);
+
+ private:
+  CallResult<platform_intl::NumberFormat *> getNumberFormat();
+  CallResult<platform_intl::DateTimeFormat *> getDateTimeFormat();
+
+  Runtime &runtime_;
+  Handle<> locales_;
+  Handle<> options_;
+  std::unique_ptr<platform_intl::NumberFormat> numberFormat_;
+  std::unique_ptr<platform_intl::DateTimeFormat> dateTimeFormat_;
+};
+
+/// \return the platform collator of the Intl.Collator whose compare function
+///   (as returned by the Intl.Collator.prototype.compare getter) is \p func,
+///   or nullptr if \p func is anything else.  The collator is owned by the
+///   Intl.Collator, which \p func keeps alive.
+platform_intl::Collator *getIntlCollatorForCompare(
+    Runtime &runtime,
+    Callable *func);
+#endif
+
 #ifdef HERMES_ENABLE_IR_INSTRUMENTATION
 /// Default no-op IR instrumentation hooks (__instrument).
 Handle<JSObject> createInstrumentObject(Runtime &runtime);
@@ -1673,6 +1673,59 @@ typedArrayPrototypeToLocaleString(void *, Runtime &runtime, NativeArgs args) {
   // Use a comma as a separator for now, as JSC does.
   auto separator = createASCIIRef(",");
 
+#ifdef HERMES_ENABLE_INTL
+  switch (self->getKind()) {
+    case CellKind::BigInt64ArrayKind:
+    case CellKind::BigUint64ArrayKind:
+      break;
+    default: {
+      // Every element is a number, so if the first one reaches the builtin
+      // Number.prototype.toLocaleString, all of them do.  In that case,
+      // format the whole array with one formatter and one platform call.
+      // The lookup must not have side effects, since the generic path
+      // repeats it; accessors just fail the builtin check.
+      auto funcVal = JSObject::tryGetNamedNoAlloc(
+          vmcast<JSObject>(runtime.numberPrototype),
+          runtime,
+          Predefined::getSymbolID(Predefined::toLocaleString));
+      if (!funcVal || !funcVal->isObject()) {
+        break;
+      }
+      auto *func = dyn_vmcast<Callable>(funcVal->getObject(runtime));
+      if (!func || !IntlElementFormatter::isNumberToLocaleString(func)) {
+        break;
+      }
+      IntlElementFormatter formatter{
+          runtime, args.getArgHandle(0), args.getArgHandle(1)};
+      std::vector<double> numbers;
+      numbers.reserve(len);
+      for (JSTypedArrayBase::size_type i = 0; i < len; ++i) {
+        numbers.push_back(
+            JSObject::getOwnIndexed(createPseudoHandle(self.get()), runtime, i)
+                .getNumber());
+      }
+      auto stringsRes = formatter.formatNumbers(numbers);
+      if (LLVM_UNLIKELY(stringsRes == ExecutionStatus::EXCEPTION)) {
+        return ExecutionStatus::EXCEPTION;
+      }
+      // Getters on the options object may have detached the buffer, in
+      // which case the generic path reports the error.
+      if (LLVM_UNLIKELY(!self->attached(runtime))) {
+        break;
+      }
+      std::u16string result;
+      for (JSTypedArrayBase::size_type i = 0; i < len; ++i) {
+        // Every element after the first needs a separator before it.
+        if (i > 0) {
+          result.append(separator.begin(), separator.end());
+        }
+        result.append((*stringsRes)[i]);
+      }
+      return StringPrimitive::createEfficient(runtime, std::move(result));
+    }
+  }
+#endif
+
   // Final size of the result string. Initialize to account for the separators.
   SafeUInt32 size(len - 1);
 
@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+// RUN: %hermes %s | %FileCheck --match-full-lines %s
+// REQUIRES: intl
+
+print([1234.5, new Date(NaN), null, 'x', 2].toLocaleString('en-US'));
+// CHECK: 1,234.5,Invalid Date,,x,2
+
+print(new Float64Array([1234.5, 0.75]).toLocaleString('en-US', {maximumFractionDigits: 1}));
+// CHECK-NEXT: 1,234.5,0.8
+
+print(new Int8Array([]).toLocaleString('en-US'));
+// CHECK-EMPTY:
+
+try { [1].toLocaleString('en-US', {style: 'currency', currency: 'EUR', minimumFractionDigits: 1000}) }
+catch (e) { print(e.name) }
+// CHECK-NEXT: RangeError
+
+var builtin = Number.prototype.toLocaleString;
+Number.prototype.toLocaleString = function() { return 'n'; };
+print([1, 2].toLocaleString('en-US'));
+// CHECK-NEXT: n,n
+print(new Int8Array([1, 2]).toLocaleString('en-US'));
+// CHECK-NEXT: n,n
+Number.prototype.toLocaleString = builtin;
@@ -32,6 +32,17 @@ print(['test1', 'test2', 'test10'].sort(new Intl.Collator('en', { } ).compare));
 print(['test1', 'test2', 'test10'].sort(new Intl.Collator('en', { numeric: true } ).compare));
 // CHECK-NEXT: test1,test2,test10
 
+// Sorting is stable, also when equal strings are ordered by collation keys.
+print(['b', 'A', 'a', 'B', 'á'].sort(new Intl.Collator('en', { sensitivity: 'base' }).compare));
+// CHECK-NEXT: A,a,á,b,B
+// Holes and non-string elements are sorted as usual.
+print(JSON.stringify(['b', , undefined, 'a'].sort(new Intl.Collator('en').compare)));
+// CHECK-NEXT: ["a","b",null,null]
+print(['b', 10, 'a', 9].sort(new Intl.Collator('en').compare));
+// CHECK-NEXT: 10,9,a,b
+try { Object.freeze(['b', 'a']).sort(new Intl.Collator('en').compare) } catch (e) { print(e.name) }
+// CHECK-NEXT: TypeError
+
 try{ new Intl.Collator('en', { collation: "banananana" } ) } catch (e) { print(e) }
 // CHECK-NEXT: RangeError: Invalid collation: banananana
 